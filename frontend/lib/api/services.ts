@@ -10,6 +10,7 @@ import type {
   ReactionSuggestion,
   FriendMatchingResponse,
   UpdatesResponse,
+  MessagePage,
 } from './types'
 
 // User API
@@ -50,8 +51,22 @@ export const chatRoomApi = {
 
 // Message API
 export const messageApi = {
-  getMessages: (roomId: string) =>
-    getApiClient().get<Message[]>(`/api/v1/chatrooms/${roomId}/messages`),
+  // 가장 최근 메시지 limit개 (서버 기본 50개)
+  getMessages: (roomId: string, limit?: number) =>
+    getApiClient().get<Message[]>(
+      `/api/v1/chatrooms/${roomId}/messages${limit ? `?limit=${limit}` : ''}`
+    ),
+
+  // 이전 메시지 페이지: before에 현재 가장 오래된 메시지 ID를 전달
+  getMessagePage: (roomId: string, params?: { before?: string; limit?: number }) => {
+    const query = new URLSearchParams()
+    if (params?.before) query.append('before', params.before)
+    if (params?.limit) query.append('limit', String(params.limit))
+    const queryString = query.toString()
+    return getApiClient().get<MessagePage>(
+      `/api/v1/chatrooms/${roomId}/messages/page${queryString ? `?${queryString}` : ''}`
+    )
+  },
 
   sendMessage: (
     roomId: string,
@@ -100,10 +115,12 @@ export const aiApi = {
     personaId?: string
     formalityLevel: number
     relationship: 'boss' | 'senior' | 'colleague' | 'friend' | 'family'
+    // receipt를 받으려면 필수 (receipt는 이 채팅방으로 보낼 때만 유효)
     roomId?: string
   }) => getApiClient().post<TransformResponse>('/api/v1/ai/transform', data),
 
-  emotionGuard: (data: { text: string }) =>
+  // receipt를 받으려면 chatRoomId 필수 (receipt는 이 채팅방으로 보낼 때만 유효)
+  emotionGuard: (data: { text: string; chatRoomId?: string }) =>
     getApiClient().post<EmotionGuardResponse>('/api/v1/ai/emotion-guard', data),
 
   reactionSuggest: (data: {
@@ -71,6 +71,7 @@ export interface TransformResponse {
   }>
   shouldSuggest: boolean
   suggestionReason?: string
+  receipt?: string | null  // 전송 시 transformReceipt로 전달. 요청에 roomId가 없으면 null
 }
 
 export interface EmotionGuardResponse {
@@ -79,6 +80,7 @@ export interface EmotionGuardResponse {
   aggressionScore: number
   suggestedText?: string
   warningMessage?: string
+  receipt?: string | null  // 전송 시 guardReceipt로 전달. 요청에 chatRoomId가 없으면 null
 }
 
 export interface ReactionSuggestion {
@@ -113,6 +115,12 @@ export interface ChatRoomUpdate {
   hasNewMessage: boolean
 }
 
+export interface MessagePage {
+  messages: Message[]
+  nextCursor: number | null
+  hasMore: boolean
+}
+
 export interface UpdatesResponse {
   updates: ChatRoomUpdate[]
   timestamp: string
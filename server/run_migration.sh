@@ -6,6 +6,7 @@ echo "This script will:"
 echo "1. Drop all existing tables"
 echo "2. Create new schema"
 echo "3. Insert sample data"
+echo "4. Apply the remaining migrations in version order"
 echo ""
 read -p "Continue? (y/n) " -n 1 -r
 echo ""
@@ -16,27 +17,19 @@ then
     exit 1
 fi
 
-echo ""
-echo "Running V1__create_persona_talk_schema.sql..."
-psql -h localhost -p 5432 -U postgres -d onboarding -f src/main/resources/db/migration/V1__create_persona_talk_schema.sql
-
-if [ $? -eq 0 ]; then
-    echo "✓ Schema created successfully"
-else
-    echo "✗ Schema creation failed"
-    exit 1
-fi
-
-echo ""
-echo "Running V2__seed_initial_data.sql..."
-psql -h localhost -p 5432 -U postgres -d onboarding -f src/main/resources/db/migration/V2__seed_initial_data.sql
-
-if [ $? -eq 0 ]; then
-    echo "✓ Sample data inserted successfully"
-else
-    echo "✗ Sample data insertion failed"
-    exit 1
-fi
+# db/migration의 V*.sql을 버전 순서대로 모두 적용 (V1은 기존 테이블을 지우고 새로 만듦)
+for script in $(ls src/main/resources/db/migration/V*__*.sql | sort -V); do
+    echo ""
+    echo "Running $(basename "$script")..."
+    psql -h localhost -p 5432 -U postgres -d onboarding -v ON_ERROR_STOP=1 -f "$script"
+
+    if [ $? -eq 0 ]; then
+        echo "✓ $(basename "$script") applied successfully"
+    else
+        echo "✗ $(basename "$script") failed"
+        exit 1
+    fi
+done
 
 echo ""
 echo "=== Migration Complete ==="
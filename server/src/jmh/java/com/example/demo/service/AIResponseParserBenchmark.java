@@ -0,0 +1,63 @@
+package com.example.demo.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AI 응답 파싱 비용 측정 (./gradlew jmh)
+ *
+ * 입력은 ai-responses/corpus.json에서 고른 대표 출력 (일반 JSON, 코드 블록으로 감싼 JSON, 필드가 많은 응답)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AIResponseParserBenchmark {
+
+    private static final String GUARD_PLAIN = "{\"isAggressive\": false, \"aggressionType\": null, " +
+            "\"aggressionScore\": 0.05, \"suggestion\": \"\"}";
+    private static final String GUARD_FENCED = "```json\n{\n  \"isAggressive\": true,\n  \"aggressionType\": \"sarcasm\",\n" +
+            "  \"aggressionScore\": 0.82,\n  \"suggestion\": \"자료 준비가 조금 늦어진 것 같아요. 내일 오전까지 가능할까요?\",\n" +
+            "  \"reason\": \"반어적 표현\"\n}\n```";
+    private static final String REACTION = "{\"emotion\": \"happy\", \"emotionScore\": 0.86, " +
+            "\"suggestedEmojis\": [\"🎉\", \"👏\", \"😊\"], " +
+            "\"suggestedTexts\": [{\"text\": \"축하해요! 고생 많았어요\", \"type\": \"congratulation\"}], " +
+            "\"quickResponses\": [{\"text\": \"축하해요\", \"icon\": \"🎉\"}, {\"text\": \"대단해요\", \"icon\": \"👏\"}]}";
+    private static final String MATCH = "{\"recommendations\": [" +
+            "{\"chatRoomId\": 3, \"matchScore\": 92, \"matchReason\": \"편한 말투가 잘 맞음\"}, " +
+            "{\"chatRoomId\": 1, \"matchScore\": 61, \"matchReason\": \"단체방이라 무난함\"}]}";
+
+    private final AIResponseParser parser = new AIResponseParser(new ObjectMapper());
+
+    @Benchmark
+    public AIService.EmotionGuardResult emotionGuardPlain() {
+        return parser.parse(GUARD_PLAIN, AIService.EmotionGuardResult.class);
+    }
+
+    @Benchmark
+    public AIService.EmotionGuardResult emotionGuardFenced() {
+        return parser.parse(GUARD_FENCED, AIService.EmotionGuardResult.class);
+    }
+
+    @Benchmark
+    public AIService.ReactionResult reactionSuggest() {
+        return parser.parse(REACTION, AIService.ReactionResult.class);
+    }
+
+    @Benchmark
+    public AIService.MatchResult friendMatching() {
+        return parser.parse(MATCH, AIService.MatchResult.class);
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.demo.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+/**
+ * OpenAI 호출을 실행할 executor
+ *
+ * spring.threads.virtual.enabled=true 이면 요청마다 가상 스레드에서 실행하여
+ * 수 초씩 블로킹되는 LLM 호출이 Tomcat 스레드 풀 크기에 묶이지 않도록 함.
+ * 꺼져 있으면 기존처럼 요청 스레드에서 그대로 실행함
+ */
+@Configuration
+public class AIExecutorConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(AIExecutorConfig.class);
+
+    @Bean(name = "aiExecutor")
+    public Executor aiExecutor(@Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        if (virtualThreads) {
+            logger.info("AI calls will run on virtual threads");
+            return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("ai-", 0).factory());
+        }
+        return Runnable::run;
+    }
+
+    /**
+     * latest-wins로 취소될 수 있는 AI 요청용 executor (AIRequestRegistry)
+     * 요청 스레드에서 동기로 실행하면 새 요청이 들어오기 전에 호출이 이미 끝나 취소로 아낄 수 있는 호출이 없으므로,
+     * 설정과 관계없이 항상 가상 스레드에서 실행함
+     */
+    @Bean(name = "aiCancellableExecutor")
+    public Executor aiCancellableExecutor() {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("ai-latest-", 0).factory());
+    }
+
+    /**
+     * 스트리밍 응답(SSE)용 executor. 요청 스레드를 반환해야 조각이 바로 전달되므로 설정과 관계없이 항상 가상 스레드를 사용
+     */
+    @Bean(name = "aiStreamingExecutor")
+    public Executor aiStreamingExecutor() {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("ai-stream-", 0).factory());
+    }
+}
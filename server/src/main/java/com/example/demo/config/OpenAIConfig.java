@@ -0,0 +1,47 @@
+package com.example.demo.config;
+
+import com.openai.client.OpenAIClient;
+import com.openai.client.okhttp.OpenAIOkHttpClient;
+import com.openai.core.Timeout;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * 모든 AI 서비스가 공유하는 OpenAI 클라이언트
+ *
+ * 클라이언트를 하나만 두어 OkHttp 커넥션 풀을 공유함.
+ * - openai-java 4.15.0의 builder는 커넥션 풀(크기, keep-alive)과 프로토콜을 설정할 수 없으므로 OkHttp 기본값을 사용함
+ *   (유휴 커넥션 5개, keep-alive 5분, TLS ALPN으로 HTTP/2를 협상하고 안 되면 HTTP/1.1)
+ * - 풀 상태는 SDK 밖으로 노출되지 않으므로 동시 호출 수는 ai.client.in-flight 게이지(AICompletionClient)로 확인
+ * 연결/읽기 timeout과 재시도 횟수는 여기서 정하고, 요청 전체 timeout은 AICompletionClient가 작업별로 지정함
+ */
+@Configuration
+public class OpenAIConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(OpenAIConfig.class);
+
+    @Bean
+    public OpenAIClient openAIClient(@Value("${openai.api.key}") String apiKey,
+                                     @Value("${openai.timeout.connect:5s}") Duration connectTimeout,
+                                     @Value("${openai.timeout.read:30s}") Duration readTimeout,
+                                     @Value("${openai.timeout.request:60s}") Duration requestTimeout,
+                                     @Value("${openai.max-retries:1}") int maxRetries) {
+        logger.info("OpenAI client initialized (connect: {}, read: {}, request: {}, maxRetries: {})",
+                connectTimeout, readTimeout, requestTimeout, maxRetries);
+        return OpenAIOkHttpClient.builder()
+                .apiKey(apiKey)
+                .timeout(Timeout.builder()
+                        .connect(connectTimeout)
+                        .read(readTimeout)
+                        .write(readTimeout)
+                        .request(requestTimeout)
+                        .build())
+                .maxRetries(maxRetries)
+                .build();
+    }
+}
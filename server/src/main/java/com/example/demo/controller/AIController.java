@@ -3,47 +3,152 @@ package com.example.demo.controller;
 import com.example.demo.dto.ApiResponse;
 import com.example.demo.dto.request.*;
 import com.example.demo.dto.response.*;
-import com.example.demo.entity.Message;
 import com.example.demo.entity.Profile;
 import com.example.demo.entity.User;
 import com.example.demo.repository.MessageRepository;
 import com.example.demo.repository.ProfileRepository;
+import com.example.demo.service.AIReceiptService;
+import com.example.demo.service.AIRequestRegistry;
 import com.example.demo.service.AIService;
+import com.example.demo.service.ChatDataLoader;
+import com.example.demo.service.ChatRoomSummaryService;
+import com.example.demo.service.ConversationPromptBuilder;
 import com.example.demo.service.UserService;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/v1/ai")
 public class AIController {
 
     private static final Logger logger = LoggerFactory.getLogger(AIController.class);
+    private static final long STREAM_TIMEOUT_MILLIS = 60_000L;
     private final AIService aiService;
     private final ProfileRepository profileRepository;
     private final MessageRepository messageRepository;
     private final UserService userService;
+    private final ChatDataLoader chatDataLoader;
+    private final Executor aiExecutor;
+    private final Executor aiStreamingExecutor;
+    private final AIRequestRegistry aiRequestRegistry;
+    private final AIReceiptService aiReceiptService;
+    private final ConversationPromptBuilder conversationPromptBuilder;
+    private final ChatRoomSummaryService chatRoomSummaryService;
 
     @Autowired
-    public AIController(AIService aiService, ProfileRepository profileRepository, MessageRepository messageRepository, UserService userService) {
+    public AIController(AIService aiService, ProfileRepository profileRepository, MessageRepository messageRepository,
+                        UserService userService, ChatDataLoader chatDataLoader,
+                        @Qualifier("aiExecutor") Executor aiExecutor,
+                        @Qualifier("aiStreamingExecutor") Executor aiStreamingExecutor,
+                        AIRequestRegistry aiRequestRegistry,
+                        AIReceiptService aiReceiptService,
+                        ConversationPromptBuilder conversationPromptBuilder,
+                        ChatRoomSummaryService chatRoomSummaryService) {
         this.aiService = aiService;
         this.profileRepository = profileRepository;
         this.messageRepository = messageRepository;
         this.userService = userService;
+        this.chatDataLoader = chatDataLoader;
+        this.aiExecutor = aiExecutor;
+        this.aiStreamingExecutor = aiStreamingExecutor;
+        this.aiRequestRegistry = aiRequestRegistry;
+        this.aiReceiptService = aiReceiptService;
+        this.conversationPromptBuilder = conversationPromptBuilder;
+        this.chatRoomSummaryService = chatRoomSummaryService;
     }
 
     @PostMapping("/transform")
-    public ResponseEntity<ApiResponse<TransformTextResponse>> transformText(@RequestBody TransformTextRequest request) {
+    public CompletableFuture<ResponseEntity<ApiResponse<TransformTextResponse>>> transformText(@RequestBody TransformTextRequest request) {
         logger.info("POST /api/v1/ai/transform - Transforming text with formality: {}, profileId: {}, roomId: {}",
                    request.getFormalityLevel(), request.getProfileId(), request.getRoomId());
 
+        // 사용자/프로필 조회는 요청 스레드에서 끝내고 OpenAI 호출만 aiExecutor에서 실행
+        TransformSettings settings = resolveTransformSettings(request);
+        // 입력 중 반복 호출되므로 같은 사용자/채팅방의 이전 변환 요청은 취소
+        Long userId = userService.getCurrentUser().getId();
+        AIRequestRegistry.RequestKey key = AIRequestRegistry.RequestKey.of(userId, request.getRoomId(), "transform");
+        return callAI(key, () -> withReceipt(aiService.transformText(
+                request.getText(),
+                settings.formalityLevel(),
+                request.getRelationship(),
+                settings.personaId()
+        ), userId, request.getRoomId()));
+    }
+
+    /**
+     * transform의 스트리밍 버전 (SSE)
+     * - delta: 생성된 텍스트 조각 {"text": "..."}
+     * - done: 최종 결과 (TransformTextResponse, changes/shouldSuggest 포함). transformedText를 최종 텍스트로 사용
+     * - error: 처리 실패
+     */
+    @PostMapping(value = "/transform/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter transformTextStream(@RequestBody TransformTextRequest request) {
+        logger.info("POST /api/v1/ai/transform/stream - Streaming transform with formality: {}, profileId: {}, roomId: {}",
+                   request.getFormalityLevel(), request.getProfileId(), request.getRoomId());
+
+        TransformSettings settings = resolveTransformSettings(request);
+        Long userId = userService.getCurrentUser().getId();
+        SseEmitter emitter = new SseEmitter(STREAM_TIMEOUT_MILLIS);
+
+        aiStreamingExecutor.execute(() -> {
+            try {
+                TransformTextResponse response = aiService.transformTextStreaming(
+                        request.getText(),
+                        settings.formalityLevel(),
+                        request.getRelationship(),
+                        settings.personaId(),
+                        delta -> sendEvent(emitter, "delta", Map.of("text", delta))
+                );
+                sendEvent(emitter, "done", withReceipt(response, userId, request.getRoomId()));
+                emitter.complete();
+            } catch (Exception e) {
+                logger.error("Failed to stream text transformation", e);
+                try {
+                    emitter.send(SseEmitter.event().name("error").data(Map.of("message", "변환 중 오류가 발생했습니다.")));
+                } catch (Exception ignored) {
+                    // 연결이 이미 끊긴 경우
+                }
+                emitter.completeWithError(e);
+            }
+        });
+        return emitter;
+    }
+
+    // 전송 시 같은 내용이면 변환 결과를 재사용할 수 있도록 영수증 첨부
+    private TransformTextResponse withReceipt(TransformTextResponse response, Long userId, Long chatRoomId) {
+        response.setReceipt(aiReceiptService.issue(AIReceiptService.KIND_TRANSFORM, userId, chatRoomId,
+                response.getAppliedPersona(), response.getOriginalText(), response.getTransformedText(), null));
+        return response;
+    }
+
+    private void sendEvent(SseEmitter emitter, String name, Object data) {
+        try {
+            emitter.send(SseEmitter.event().name(name).data(data));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * profileId 또는 roomId로 찾은 프로필의 persona를 우선 적용한 변환 설정
+     */
+    private TransformSettings resolveTransformSettings(TransformTextRequest request) {
         User currentUser = userService.getCurrentUser();
         Double formalityLevel = request.getFormalityLevel();
         String personaId = request.getPersonaId();
@@ -55,16 +160,14 @@ public class AIController {
             // profileId가 명시된 경우
             try {
                 Long profileIdLong = Long.valueOf(request.getProfileId());
-                targetProfile = profileRepository.findById(profileIdLong).orElse(null);
-                if (targetProfile != null && !targetProfile.getUser().getId().equals(currentUser.getId())) {
-                    targetProfile = null; // 다른 사용자의 프로필은 무시
-                }
+                // 다른 사용자의 프로필은 무시 (트랜잭션 밖이므로 user 프록시를 따라가지 않고 조회 조건으로 확인)
+                targetProfile = profileRepository.findByIdAndUserId(profileIdLong, currentUser.getId()).orElse(null);
             } catch (Exception e) {
                 logger.error("Failed to get profile by profileId: {}", request.getProfileId(), e);
             }
         } else if (request.getRoomId() != null) {
             // roomId로부터 자동으로 프로필 찾기
-            targetProfile = findProfileByChatRoomId(currentUser.getId(), request.getRoomId());
+            targetProfile = chatDataLoader.findLinkedProfile(currentUser.getId(), request.getRoomId());
             if (targetProfile != null) {
                 logger.info("Auto-detected profile {} for chatRoom {}", targetProfile.getId(), request.getRoomId());
             }
@@ -84,17 +187,14 @@ public class AIController {
             throw new IllegalArgumentException("격식 수준은 0-100 사이여야 합니다.");
         }
 
-        TransformTextResponse response = aiService.transformText(
-                request.getText(),
-                formalityLevel,
-                request.getRelationship(),
-                personaId
-        );
-        return ResponseEntity.ok(ApiResponse.success(response));
+        return new TransformSettings(formalityLevel, personaId);
+    }
+
+    private record TransformSettings(Double formalityLevel, String personaId) {
     }
 
     @PostMapping("/emotion-guard")
-    public ResponseEntity<ApiResponse<EmotionGuardDetailResponse>> checkEmotionGuard(@RequestBody EmotionGuardRequest request) {
+    public CompletableFuture<ResponseEntity<ApiResponse<EmotionGuardDetailResponse>>> checkEmotionGuard(@RequestBody EmotionGuardRequest request) {
         logger.info("POST /api/v1/ai/emotion-guard - Checking emotion guard, chatRoomId: {}, profileId: {}",
                    request.getChatRoomId(), request.getProfileId());
 
@@ -105,15 +205,13 @@ public class AIController {
         if (request.getProfileId() != null && !request.getProfileId().isEmpty()) {
             try {
                 Long profileIdLong = Long.valueOf(request.getProfileId());
-                targetProfile = profileRepository.findById(profileIdLong).orElse(null);
-                if (targetProfile != null && !targetProfile.getUser().getId().equals(currentUser.getId())) {
-                    targetProfile = null;
-                }
+                // 다른 사용자의 프로필은 무시 (트랜잭션 밖이므로 user 프록시를 따라가지 않고 조회 조건으로 확인)
+                targetProfile = profileRepository.findByIdAndUserId(profileIdLong, currentUser.getId()).orElse(null);
             } catch (Exception e) {
                 logger.error("Failed to get profile by profileId: {}", request.getProfileId(), e);
             }
         } else if (request.getChatRoomId() != null) {
-            targetProfile = findProfileByChatRoomId(currentUser.getId(), request.getChatRoomId());
+            targetProfile = chatDataLoader.findLinkedProfile(currentUser.getId(), request.getChatRoomId());
             if (targetProfile != null) {
                 logger.info("Auto-detected profile {} for chatRoom {}", targetProfile.getId(), request.getChatRoomId());
             }
@@ -125,12 +223,19 @@ public class AIController {
                        targetProfile.getId(), targetProfile.getName(), personaId);
         }
 
-        EmotionGuardDetailResponse response = aiService.checkEmotionGuard(request.getText(), personaId);
-        return ResponseEntity.ok(ApiResponse.success(response));
+        AIRequestRegistry.RequestKey key = AIRequestRegistry.RequestKey.of(
+                currentUser.getId(), request.getChatRoomId(), "emotion-guard");
+        return callAI(key, () -> {
+            EmotionGuardDetailResponse response = aiService.checkEmotionGuard(request.getText(), personaId);
+            response.setReceipt(aiReceiptService.issue(AIReceiptService.KIND_GUARD, currentUser.getId(),
+                    request.getChatRoomId(), aiService.resolveGuardPersona(personaId), request.getText(),
+                    response.getSuggestedText(), response.getIsAggressive()));
+            return response;
+        });
     }
 
     @PostMapping("/reaction-suggest")
-    public ResponseEntity<ApiResponse<ReactionSuggestResponse>> suggestReactions(@RequestBody ReactionSuggestRequest request) {
+    public CompletableFuture<ResponseEntity<ApiResponse<ReactionSuggestResponse>>> suggestReactions(@RequestBody ReactionSuggestRequest request) {
         logger.info("POST /api/v1/ai/reaction-suggest - Suggesting reactions for message: {}, profileId: {}, chatRoomId: {}",
                    request.getMessage(), request.getProfileId(), request.getChatRoomId());
 
@@ -145,16 +250,14 @@ public class AIController {
             // profileId가 명시된 경우
             try {
                 Long profileIdLong = Long.valueOf(request.getProfileId());
-                targetProfile = profileRepository.findById(profileIdLong).orElse(null);
-                if (targetProfile != null && !targetProfile.getUser().getId().equals(currentUser.getId())) {
-                    targetProfile = null; // 다른 사용자의 프로필은 무시
-                }
+                // 다른 사용자의 프로필은 무시 (트랜잭션 밖이므로 user 프록시를 따라가지 않고 조회 조건으로 확인)
+                targetProfile = profileRepository.findByIdAndUserId(profileIdLong, currentUser.getId()).orElse(null);
             } catch (Exception e) {
                 logger.error("Failed to get profile by profileId: {}", request.getProfileId(), e);
             }
         } else if (request.getChatRoomId() != null) {
             // chatRoomId로부터 자동으로 프로필 찾기
-            targetProfile = findProfileByChatRoomId(currentUser.getId(), request.getChatRoomId());
+            targetProfile = chatDataLoader.findLinkedProfile(currentUser.getId(), request.getChatRoomId());
             if (targetProfile != null) {
                 logger.info("Auto-detected profile {} for chatRoom {}", targetProfile.getId(), request.getChatRoomId());
             }
@@ -169,36 +272,62 @@ public class AIController {
                        targetProfile.getId(), targetProfile.getName(), personaId, formalityLevel);
         }
 
-        // 대화 히스토리 가져오기 (최대 100개)
-        List<Message> conversationHistory = new ArrayList<>();
+        // 대화 히스토리 가져오기 (최신순으로 최근 메시지만, 프롬프트에 넣을 양은 ConversationPromptBuilder가 토큰 수로 제한)
+        // 요약이 있으면 요약 이전 메시지는 프롬프트에서 요약으로 대체됨
+        // 엔티티는 AI 스레드로 넘기지 않고 여기서 값으로 변환 (영속성 컨텍스트 밖에서 지연 로딩하지 않도록)
+        List<ConversationPromptBuilder.HistoryMessage> conversationHistory = new ArrayList<>();
+        ChatRoomSummaryService.Summary conversationSummary = null;
         if (request.getChatRoomId() != null) {
-            List<Message> allMessages = messageRepository.findByChatRoomIdOrderByTimestampAsc(request.getChatRoomId());
-            // 최근 100개만 가져오기
-            int startIndex = Math.max(0, allMessages.size() - 100);
-            conversationHistory = allMessages.subList(startIndex, allMessages.size());
-            logger.info("Loaded {} messages from conversation history for reaction suggestions", conversationHistory.size());
+            conversationHistory = messageRepository.findRecent(request.getChatRoomId(), conversationPromptBuilder.maxMessages())
+                    .stream()
+                    .map(ConversationPromptBuilder.HistoryMessage::from)
+                    .collect(Collectors.toList());
+            conversationSummary = chatRoomSummaryService.findSummary(request.getChatRoomId());
+            logger.info("Loaded {} messages from conversation history for reaction suggestions (summary: {})",
+                    conversationHistory.size(), conversationSummary != null);
         }
 
-        ReactionSuggestResponse response = aiService.suggestReactions(
+        Double appliedFormalityLevel = formalityLevel;
+        String appliedPersonaId = personaId;
+        List<ConversationPromptBuilder.HistoryMessage> history = conversationHistory;
+        ChatRoomSummaryService.Summary summary = conversationSummary;
+        return callAI(() -> aiService.suggestReactions(
                 request.getMessage(),
                 relationship,
-                formalityLevel,
-                personaId,
-                conversationHistory,
+                appliedFormalityLevel,
+                appliedPersonaId,
+                history,
+                summary,
                 currentUser
-        );
-        return ResponseEntity.ok(ApiResponse.success(response));
+        ));
     }
 
     @PostMapping("/friend-matching")
-    public ResponseEntity<ApiResponse<FriendMatchingDetailResponse>> findFriendMatches(@RequestBody FriendMatchingRequest request) {
+    public CompletableFuture<ResponseEntity<ApiResponse<FriendMatchingDetailResponse>>> findFriendMatches(@RequestBody FriendMatchingRequest request) {
         logger.info("POST /api/v1/ai/friend-matching - Finding chat room matches for profile: {}", request.getProfileName());
-        FriendMatchingDetailResponse response = aiService.findFriendMatches(
+        return callAI(() -> aiService.findFriendMatches(
                 request.getProfileName(),
                 request.getPersonaId(),
                 request.getChatRoomIds()
-        );
-        return ResponseEntity.ok(ApiResponse.success(response));
+        ));
+    }
+
+    /**
+     * OpenAI 호출을 aiExecutor에서 실행하고 비동기 응답으로 반환
+     * 가상 스레드 모드에서는 호출이 끝날 때까지 Tomcat 스레드를 점유하지 않음
+     */
+    private <T> CompletableFuture<ResponseEntity<ApiResponse<T>>> callAI(Supplier<T> call) {
+        return CompletableFuture.supplyAsync(() -> ResponseEntity.ok(ApiResponse.success(call.get())), aiExecutor);
+    }
+
+    /**
+     * callAI와 같지만 같은 key로 진행 중인 이전 요청을 취소함 (latest-wins)
+     * 취소가 효과가 있도록 spring.threads.virtual.enabled 설정과 관계없이 항상 가상 스레드에서 실행됨
+     * 취소된 요청은 CancellationException으로 끝나 409 SUPERSEDED로 응답됨
+     */
+    private <T> CompletableFuture<ResponseEntity<ApiResponse<T>>> callAI(AIRequestRegistry.RequestKey key, Supplier<T> call) {
+        return aiRequestRegistry.submit(key, call)
+                .thenApply(result -> ResponseEntity.ok(ApiResponse.success(result)));
     }
 
     /**
@@ -225,28 +354,4 @@ public class AIController {
                 return 50.0;
         }
     }
-
-    /**
-     * 특정 사용자가 특정 채팅방을 linkedChatRoomIds에 포함한 프로필을 찾음
-     */
-    private Profile findProfileByChatRoomId(Long userId, Long chatRoomId) {
-        try {
-            ObjectMapper mapper = new ObjectMapper();
-            List<Profile> profiles = profileRepository.findByUserId(userId);
-            for (Profile profile : profiles) {
-                if (profile.getLinkedChatRoomIds() != null && !profile.getLinkedChatRoomIds().trim().isEmpty()) {
-                    List<Long> chatRoomIds = mapper.readValue(
-                            profile.getLinkedChatRoomIds(),
-                            new TypeReference<List<Long>>() {}
-                    );
-                    if (chatRoomIds.contains(chatRoomId)) {
-                        return profile;
-                    }
-                }
-            }
-        } catch (Exception e) {
-            logger.error("Failed to find profile by chatRoomId: {}", chatRoomId, e);
-        }
-        return null;
-    }
 }
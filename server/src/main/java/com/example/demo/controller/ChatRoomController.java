@@ -72,6 +72,15 @@ public class ChatRoomController {
         return ResponseEntity.ok(ApiResponse.success(null));
     }
 
+    @PutMapping("/read")
+    public ResponseEntity<ApiResponse<Void>> markAllAsRead(
+            @RequestParam(required = false) String profileId) {
+        logger.info("PUT /api/v1/chatrooms/read - Marking all chat rooms as read (profileId: {})", profileId);
+        int updated = chatRoomService.markAllAsRead(profileId);
+        logger.info("Marked {} chat rooms as read", updated);
+        return ResponseEntity.ok(ApiResponse.success(null));
+    }
+
     @DeleteMapping("/{roomId}")
     public ResponseEntity<ApiResponse<MessageOnlyResponse>> deleteChatRoom(@PathVariable Long roomId) {
         logger.info("DELETE /api/v1/chatrooms/{} - Deleting chat room", roomId);
@@ -0,0 +1,35 @@
+package com.example.demo.controller;
+
+import com.example.demo.entity.User;
+import com.example.demo.event.ChatEventHub;
+import com.example.demo.service.UserService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/v1/events")
+public class EventController {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventController.class);
+    private final ChatEventHub chatEventHub;
+    private final UserService userService;
+
+    @Autowired
+    public EventController(ChatEventHub chatEventHub, UserService userService) {
+        this.chatEventHub = chatEventHub;
+        this.userService = userService;
+    }
+
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribe() {
+        User currentUser = userService.getCurrentUser();
+        logger.info("GET /api/v1/events - Opening event stream for user: {}", currentUser.getLdap());
+        return chatEventHub.subscribe(currentUser.getId());
+    }
+}
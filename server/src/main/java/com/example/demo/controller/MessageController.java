@@ -3,36 +3,66 @@ package com.example.demo.controller;
 import com.example.demo.dto.ApiResponse;
 import com.example.demo.dto.request.AddReactionRequest;
 import com.example.demo.dto.request.SendMessageRequest;
+import com.example.demo.dto.request.SyncChatRoomsRequest;
+import com.example.demo.dto.response.ChatRoomUpdateResponse;
+import com.example.demo.dto.response.MessagePageResponse;
 import com.example.demo.dto.response.MessageResponse;
+import com.example.demo.event.MessageWaiterRegistry;
+import com.example.demo.security.LdapContext;
 import com.example.demo.service.MessageService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
 
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api/v1")
 public class MessageController {
 
     private static final Logger logger = LoggerFactory.getLogger(MessageController.class);
+    private static final long MAX_POLL_WAIT_SECONDS = 25;
     private final MessageService messageService;
+    private final MessageWaiterRegistry messageWaiterRegistry;
 
-    public MessageController(MessageService messageService) {
+    public MessageController(MessageService messageService, MessageWaiterRegistry messageWaiterRegistry) {
         this.messageService = messageService;
+        this.messageWaiterRegistry = messageWaiterRegistry;
     }
 
+    /**
+     * 가장 최근 메시지 limit개 (기본 50개). 이전 메시지는 /messages/page?before= 로 조회
+     */
     @GetMapping("/chatrooms/{roomId}/messages")
-    public ResponseEntity<ApiResponse<List<MessageResponse>>> getMessages(@PathVariable Long roomId) {
-        logger.info("GET /api/v1/chatrooms/{}/messages - Fetching messages", roomId);
-        List<MessageResponse> messages = messageService.getMessages(roomId);
+    public ResponseEntity<ApiResponse<List<MessageResponse>>> getMessages(
+            @PathVariable Long roomId,
+            @RequestParam(required = false) Integer limit) {
+        logger.info("GET /api/v1/chatrooms/{}/messages - Fetching latest messages (limit: {})", roomId, limit);
+        List<MessageResponse> messages = messageService.getMessages(roomId, limit);
         logger.info("Retrieved {} messages for chatRoom: {}", messages.size(), roomId);
         return ResponseEntity.ok(ApiResponse.success(messages));
     }
 
+    @GetMapping("/chatrooms/{roomId}/messages/page")
+    public ResponseEntity<ApiResponse<MessagePageResponse>> getMessagePage(
+            @PathVariable Long roomId,
+            @RequestParam(required = false) Long before,
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) String at,
+            @RequestParam(required = false) Integer limit) {
+        logger.info("GET /api/v1/chatrooms/{}/messages/page - Fetching messages (before: {}, after: {}, at: {}, limit: {})",
+                roomId, before, after, at, limit);
+        LocalDateTime atTime = at != null ? parseDateTime("at", at) : null;
+        MessagePageResponse page = messageService.getMessagePage(roomId, before, after, atTime, limit);
+        return ResponseEntity.ok(ApiResponse.success(page));
+    }
+
     @PostMapping("/chatrooms/{roomId}/messages")
     public ResponseEntity<ApiResponse<MessageResponse>> sendMessage(
             @PathVariable Long roomId,
@@ -59,14 +89,113 @@ public class MessageController {
         return ResponseEntity.status(HttpStatus.CREATED).body(ApiResponse.success(message));
     }
 
+    /**
+     * afterSeq(채팅방 메시지 순번) 이후의 새 메시지 조회.
+     * since(timestamp)는 이전 클라이언트 호환용으로, 같은 시각의 메시지를 놓치거나 중복될 수 있음
+     */
     @GetMapping("/chatrooms/{roomId}/messages/poll")
     public ResponseEntity<ApiResponse<List<MessageResponse>>> pollMessages(
             @PathVariable Long roomId,
-            @RequestParam String since) {
-        logger.info("GET /api/v1/chatrooms/{}/messages/poll - Polling for new messages since {}", roomId, since);
-        LocalDateTime sinceTime = LocalDateTime.parse(since);
-        List<MessageResponse> newMessages = messageService.pollNewMessages(roomId, sinceTime);
+            @RequestParam(required = false) Long afterSeq,
+            @RequestParam(required = false) String since) {
+        logger.info("GET /api/v1/chatrooms/{}/messages/poll - Polling for new messages (afterSeq: {}, since: {})",
+                roomId, afterSeq, since);
+        List<MessageResponse> newMessages = pollNewMessages(roomId, afterSeq, since);
         logger.info("Found {} new messages", newMessages.size());
         return ResponseEntity.ok(ApiResponse.success(newMessages));
     }
+
+    /**
+     * Long-poll 모드: 새 메시지가 없으면 최대 wait초 동안 요청을 대기시키고,
+     * 그 사이 메시지가 커밋되면 즉시 응답. 응답 형식은 일반 poll과 동일
+     */
+    @GetMapping(value = "/chatrooms/{roomId}/messages/poll", params = "wait")
+    public DeferredResult<ResponseEntity<ApiResponse<List<MessageResponse>>>> longPollMessages(
+            @PathVariable Long roomId,
+            @RequestParam(required = false) Long afterSeq,
+            @RequestParam(required = false) String since,
+            @RequestParam int wait) {
+        long waitSeconds = Math.max(0, Math.min(wait, MAX_POLL_WAIT_SECONDS));
+        logger.info("GET /api/v1/chatrooms/{}/messages/poll - Long-polling for new messages (afterSeq: {}, since: {}, wait: {}s)",
+                roomId, afterSeq, since, waitSeconds);
+        String ldap = LdapContext.getLdap();
+
+        DeferredResult<ResponseEntity<ApiResponse<List<MessageResponse>>>> result = new DeferredResult<>(
+                TimeUnit.SECONDS.toMillis(waitSeconds),
+                () -> ResponseEntity.ok(ApiResponse.success(List.of())));
+
+        // 조회 전에 먼저 등록해야 조회와 등록 사이에 커밋된 메시지를 놓치지 않음
+        Runnable cancelWait = messageWaiterRegistry.await(roomId, result, () -> {
+            try {
+                List<MessageResponse> newMessages = LdapContext.callAs(ldap,
+                        () -> pollNewMessages(roomId, afterSeq, since));
+                logger.info("Long-poll for chatRoom {} woke up with {} new messages", roomId, newMessages.size());
+                result.setResult(ResponseEntity.ok(ApiResponse.success(newMessages)));
+            } catch (Exception e) {
+                result.setErrorResult(e);
+            }
+        });
+
+        List<MessageResponse> newMessages;
+        try {
+            newMessages = pollNewMessages(roomId, afterSeq, since);
+        } catch (RuntimeException e) {
+            // 멤버가 아니거나 파라미터가 잘못된 경우 대기 등록을 해제하고 예외를 그대로 전달
+            cancelWait.run();
+            throw e;
+        }
+        if (!newMessages.isEmpty() || waitSeconds == 0) {
+            cancelWait.run();
+            logger.info("Found {} new messages", newMessages.size());
+            result.setResult(ResponseEntity.ok(ApiResponse.success(newMessages)));
+        }
+        return result;
+    }
+
+    /**
+     * 여러 채팅방을 한 번의 요청으로 동기화: 채팅방별 마지막 seq를 보내면 변경된 채팅방만 반환
+     * (채팅방 목록 갱신과 열린 채팅방 poll을 하나로 대체)
+     */
+    @PostMapping("/chatrooms/sync")
+    public ResponseEntity<ApiResponse<List<ChatRoomUpdateResponse>>> syncChatRooms(
+            @RequestBody SyncChatRoomsRequest request) {
+        int roomCount = request.getCursors() != null ? request.getCursors().size() : 0;
+        logger.info("POST /api/v1/chatrooms/sync - Syncing {} chat rooms", roomCount);
+        List<ChatRoomUpdateResponse> updates = messageService.syncChatRooms(request.getCursors());
+        logger.info("{} chat rooms have updates", updates.size());
+        return ResponseEntity.ok(ApiResponse.success(updates));
+    }
+
+    /**
+     * 누락된 순번 구간 [fromSeq, toSeq]의 메시지 조회 (poll/SSE로 받은 seq 사이에 빈틈이 있을 때 사용)
+     */
+    @GetMapping("/chatrooms/{roomId}/messages/range")
+    public ResponseEntity<ApiResponse<List<MessageResponse>>> getMessageRange(
+            @PathVariable Long roomId,
+            @RequestParam Long fromSeq,
+            @RequestParam Long toSeq) {
+        logger.info("GET /api/v1/chatrooms/{}/messages/range - Fetching messages (fromSeq: {}, toSeq: {})",
+                roomId, fromSeq, toSeq);
+        List<MessageResponse> messages = messageService.getMessagesBySeqRange(roomId, fromSeq, toSeq);
+        return ResponseEntity.ok(ApiResponse.success(messages));
+    }
+
+    private List<MessageResponse> pollNewMessages(Long roomId, Long afterSeq, String since) {
+        if (afterSeq != null) {
+            return messageService.pollNewMessages(roomId, afterSeq);
+        }
+        if (since != null) {
+            return messageService.pollNewMessages(roomId, parseDateTime("since", since));
+        }
+        throw new IllegalArgumentException("Either afterSeq or since is required");
+    }
+
+    // 잘못된 시각 파라미터는 500이 아닌 400으로 응답
+    private LocalDateTime parseDateTime(String name, String value) {
+        try {
+            return LocalDateTime.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid " + name + ": " + value);
+        }
+    }
 }
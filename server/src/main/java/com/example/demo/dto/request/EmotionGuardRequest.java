@@ -2,6 +2,7 @@ package com.example.demo.dto.request;
 
 public class EmotionGuardRequest {
     private String text;
+    // 영수증(receipt)을 받으려면 필수. 영수증은 이 채팅방으로 보낼 때만 유효함
     private Long chatRoomId;
     private String profileId;
 
@@ -7,6 +7,9 @@ public class SendMessageRequest {
     private Boolean isEmoticon = false;
     private Long emoticonId;
     private String profileId;
+    // /ai/transform, /ai/emotion-guard 응답의 receipt. 내용/말투/채팅방이 같으면 AI 호출 없이 결과를 재사용
+    private String transformReceipt;
+    private String guardReceipt;
 
     public SendMessageRequest() {
     }
@@ -58,4 +61,20 @@ public class SendMessageRequest {
     public void setProfileId(String profileId) {
         this.profileId = profileId;
     }
+
+    public String getTransformReceipt() {
+        return transformReceipt;
+    }
+
+    public void setTransformReceipt(String transformReceipt) {
+        this.transformReceipt = transformReceipt;
+    }
+
+    public String getGuardReceipt() {
+        return guardReceipt;
+    }
+
+    public void setGuardReceipt(String guardReceipt) {
+        this.guardReceipt = guardReceipt;
+    }
 }
@@ -0,0 +1,19 @@
+package com.example.demo.dto.request;
+
+import java.util.Map;
+
+public class SyncChatRoomsRequest {
+    // chatRoomId -> 클라이언트가 마지막으로 받은 메시지 seq (처음이면 0)
+    private Map<Long, Long> cursors;
+
+    public SyncChatRoomsRequest() {
+    }
+
+    public Map<Long, Long> getCursors() {
+        return cursors;
+    }
+
+    public void setCursors(Map<Long, Long> cursors) {
+        this.cursors = cursors;
+    }
+}
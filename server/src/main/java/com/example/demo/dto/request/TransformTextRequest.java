@@ -5,6 +5,7 @@ public class TransformTextRequest {
     private String personaId;
     private Double formalityLevel;
     private String relationship;
+    // 영수증(receipt)을 받으려면 필수. 영수증은 이 채팅방으로 보낼 때만 유효함
     private Long roomId;
     private String profileId;
 
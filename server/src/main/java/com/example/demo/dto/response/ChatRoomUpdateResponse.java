@@ -6,14 +6,16 @@ public class ChatRoomUpdateResponse {
     private Long chatRoomId;
     private List<MessageResponse> newMessages;
     private Long unreadCount;
+    private Boolean hasMore;
 
     public ChatRoomUpdateResponse() {
     }
 
-    public ChatRoomUpdateResponse(Long chatRoomId, List<MessageResponse> newMessages, Long unreadCount) {
+    public ChatRoomUpdateResponse(Long chatRoomId, List<MessageResponse> newMessages, Long unreadCount, Boolean hasMore) {
         this.chatRoomId = chatRoomId;
         this.newMessages = newMessages;
         this.unreadCount = unreadCount;
+        this.hasMore = hasMore;
     }
 
     public Long getChatRoomId() {
@@ -39,4 +41,12 @@ public class ChatRoomUpdateResponse {
     public void setUnreadCount(Long unreadCount) {
         this.unreadCount = unreadCount;
     }
+
+    public Boolean getHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(Boolean hasMore) {
+        this.hasMore = hasMore;
+    }
 }
@@ -6,6 +6,9 @@ public class EmotionGuardDetailResponse {
     private Double aggressionScore;
     private String suggestedText;
     private String warningMessage;
+    // 전송 시 재계산 없이 결과를 재사용하기 위한 서명된 영수증 (SendMessageRequest.guardReceipt)
+    // 요청에 chatRoomId가 없으면 null
+    private String receipt;
 
     public EmotionGuardDetailResponse() {
     }
@@ -58,4 +61,12 @@ public class EmotionGuardDetailResponse {
     public void setWarningMessage(String warningMessage) {
         this.warningMessage = warningMessage;
     }
+
+    public String getReceipt() {
+        return receipt;
+    }
+
+    public void setReceipt(String receipt) {
+        this.receipt = receipt;
+    }
 }
@@ -0,0 +1,64 @@
+package com.example.demo.dto.response;
+
+/**
+ * 감정 검사 + 말투 변환을 한 번의 AI 호출로 처리한 결과
+ */
+public class GuardedTransformResponse {
+    private Boolean isAggressive;
+    private String aggressionType;
+    private Double aggressionScore;
+    private String suggestedText;
+    private String transformedText;
+
+    public GuardedTransformResponse() {
+    }
+
+    public GuardedTransformResponse(Boolean isAggressive, String aggressionType, Double aggressionScore,
+                                    String suggestedText, String transformedText) {
+        this.isAggressive = isAggressive;
+        this.aggressionType = aggressionType;
+        this.aggressionScore = aggressionScore;
+        this.suggestedText = suggestedText;
+        this.transformedText = transformedText;
+    }
+
+    public Boolean getIsAggressive() {
+        return isAggressive;
+    }
+
+    public void setIsAggressive(Boolean isAggressive) {
+        this.isAggressive = isAggressive;
+    }
+
+    public String getAggressionType() {
+        return aggressionType;
+    }
+
+    public void setAggressionType(String aggressionType) {
+        this.aggressionType = aggressionType;
+    }
+
+    public Double getAggressionScore() {
+        return aggressionScore;
+    }
+
+    public void setAggressionScore(Double aggressionScore) {
+        this.aggressionScore = aggressionScore;
+    }
+
+    public String getSuggestedText() {
+        return suggestedText;
+    }
+
+    public void setSuggestedText(String suggestedText) {
+        this.suggestedText = suggestedText;
+    }
+
+    public String getTransformedText() {
+        return transformedText;
+    }
+
+    public void setTransformedText(String transformedText) {
+        this.transformedText = transformedText;
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.demo.dto.response;
+
+import java.util.List;
+
+public class MessagePageResponse {
+    private List<MessageResponse> messages;
+    private Long nextCursor;
+    private Boolean hasMore;
+
+    public MessagePageResponse() {
+    }
+
+    public MessagePageResponse(List<MessageResponse> messages, Long nextCursor, Boolean hasMore) {
+        this.messages = messages;
+        this.nextCursor = nextCursor;
+        this.hasMore = hasMore;
+    }
+
+    public List<MessageResponse> getMessages() {
+        return messages;
+    }
+
+    public void setMessages(List<MessageResponse> messages) {
+        this.messages = messages;
+    }
+
+    public Long getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(Long nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public Boolean getHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(Boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+}
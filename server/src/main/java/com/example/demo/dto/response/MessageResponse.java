@@ -5,6 +5,7 @@ import java.util.List;
 
 public class MessageResponse {
     private Long id;
+    private Long seq;
     private UserResponse sender;
     private String content;
     private String originalContent;
@@ -19,6 +20,22 @@ public class MessageResponse {
     public MessageResponse() {
     }
 
+    // 수신자별로 isMine/isRead만 다르게 보낼 때 사용 (sender, reactions는 공유)
+    public MessageResponse(MessageResponse other) {
+        this.id = other.id;
+        this.seq = other.seq;
+        this.sender = other.sender;
+        this.content = other.content;
+        this.originalContent = other.originalContent;
+        this.wasGuarded = other.wasGuarded;
+        this.isEmoticon = other.isEmoticon;
+        this.emoticonId = other.emoticonId;
+        this.timestamp = other.timestamp;
+        this.reactions = other.reactions;
+        this.isMine = other.isMine;
+        this.isRead = other.isRead;
+    }
+
     public Long getId() {
         return id;
     }
@@ -27,6 +44,14 @@ public class MessageResponse {
         this.id = id;
     }
 
+    public Long getSeq() {
+        return seq;
+    }
+
+    public void setSeq(Long seq) {
+        this.seq = seq;
+    }
+
     public UserResponse getSender() {
         return sender;
     }
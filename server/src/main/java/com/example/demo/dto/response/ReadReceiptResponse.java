@@ -0,0 +1,40 @@
+package com.example.demo.dto.response;
+
+public class ReadReceiptResponse {
+    private Long chatRoomId;
+    private Long userId;
+    private Long lastReadMessageId;
+
+    public ReadReceiptResponse() {
+    }
+
+    public ReadReceiptResponse(Long chatRoomId, Long userId, Long lastReadMessageId) {
+        this.chatRoomId = chatRoomId;
+        this.userId = userId;
+        this.lastReadMessageId = lastReadMessageId;
+    }
+
+    public Long getChatRoomId() {
+        return chatRoomId;
+    }
+
+    public void setChatRoomId(Long chatRoomId) {
+        this.chatRoomId = chatRoomId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public Long getLastReadMessageId() {
+        return lastReadMessageId;
+    }
+
+    public void setLastReadMessageId(Long lastReadMessageId) {
+        this.lastReadMessageId = lastReadMessageId;
+    }
+}
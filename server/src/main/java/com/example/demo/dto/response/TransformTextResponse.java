@@ -10,6 +10,9 @@ public class TransformTextResponse {
     private List<ChangeDetail> changes;
     private Boolean shouldSuggest;
     private String suggestionReason;
+    // 전송 시 재계산 없이 결과를 재사용하기 위한 서명된 영수증 (SendMessageRequest.transformReceipt)
+    // 요청에 roomId가 없으면 null
+    private String receipt;
 
     public TransformTextResponse() {
     }
@@ -70,6 +73,14 @@ public class TransformTextResponse {
         this.suggestionReason = suggestionReason;
     }
 
+    public String getReceipt() {
+        return receipt;
+    }
+
+    public void setReceipt(String receipt) {
+        this.receipt = receipt;
+    }
+
     public static class ChangeDetail {
         private String type;
         private String description;
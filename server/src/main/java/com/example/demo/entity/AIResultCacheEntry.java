@@ -0,0 +1,69 @@
+package com.example.demo.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * AI 호출 결과 영속 캐시 (AIResultCache의 2차 저장소)
+ *
+ * cache_key는 (종류, 정규화된 입력, persona, relationship, 모델, 프롬프트 버전)의 SHA-256 hex
+ */
+@Entity
+@Table(name = "ai_result_cache", schema = "hackerton", indexes = {
+    @Index(name = "idx_ai_result_cache_expires_at", columnList = "expires_at")
+})
+public class AIResultCacheEntry {
+
+    @Id
+    @Column(name = "cache_key", length = 64)
+    private String cacheKey;
+
+    @Column(nullable = false, length = 32)
+    private String kind;
+
+    @Column(nullable = false, length = 100)
+    private String model;
+
+    @Column(name = "prompt_version", nullable = false, length = 32)
+    private String promptVersion;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String result;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    public AIResultCacheEntry() {
+    }
+
+    public String getCacheKey() {
+        return cacheKey;
+    }
+
+    public String getKind() {
+        return kind;
+    }
+
+    public String getModel() {
+        return model;
+    }
+
+    public String getPromptVersion() {
+        return promptVersion;
+    }
+
+    public String getResult() {
+        return result;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+}
@@ -28,6 +28,10 @@ public class ChatRoom {
     @Column(columnDefinition = "TEXT")
     private String keywords;
 
+    // 마지막으로 할당된 메시지 순번. 원자적 UPDATE로만 증가시키므로 엔티티에서는 읽기 전용
+    @Column(name = "last_message_seq", nullable = false, insertable = false, updatable = false)
+    private Long lastMessageSeq = 0L;
+
     public ChatRoom() {
     }
 
@@ -91,4 +95,8 @@ public class ChatRoom {
     public void setKeywords(String keywords) {
         this.keywords = keywords;
     }
+
+    public Long getLastMessageSeq() {
+        return lastMessageSeq;
+    }
 }
@@ -0,0 +1,44 @@
+package com.example.demo.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * 채팅방 누적 대화 요약 (seq가 lastSeq 이하인 메시지까지 반영됨)
+ */
+@Entity
+@Table(name = "chat_room_summaries", schema = "hackerton")
+public class ChatRoomSummary {
+
+    @Id
+    @Column(name = "chat_room_id")
+    private Long chatRoomId;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String summary;
+
+    @Column(name = "last_seq", nullable = false)
+    private Long lastSeq;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    public ChatRoomSummary() {
+    }
+
+    public Long getChatRoomId() {
+        return chatRoomId;
+    }
+
+    public String getSummary() {
+        return summary;
+    }
+
+    public Long getLastSeq() {
+        return lastSeq;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+}
@@ -7,7 +7,9 @@ import java.time.LocalDateTime;
 @Table(name = "messages", schema = "hackerton", indexes = {
     @Index(name = "idx_messages_chat_room", columnList = "chat_room_id"),
     @Index(name = "idx_messages_sender", columnList = "sender_id"),
-    @Index(name = "idx_messages_timestamp", columnList = "timestamp")
+    @Index(name = "idx_messages_timestamp", columnList = "timestamp"),
+    @Index(name = "idx_messages_room_timestamp_id", columnList = "chat_room_id, timestamp, id"),
+    @Index(name = "uq_messages_room_seq", columnList = "chat_room_id, seq", unique = true)
 })
 public class Message {
 
@@ -23,6 +25,10 @@ public class Message {
     @JoinColumn(name = "sender_id", nullable = false)
     private User sender;
 
+    // 채팅방 내 순번 (1부터 빈틈없이 증가, 저장 시 ChatRoom.lastMessageSeq에서 할당)
+    @Column(nullable = false, updatable = false)
+    private Long seq;
+
     @Column(nullable = false, columnDefinition = "TEXT")
     private String content;
 
@@ -84,6 +90,14 @@ public class Message {
         this.sender = sender;
     }
 
+    public Long getSeq() {
+        return seq;
+    }
+
+    public void setSeq(Long seq) {
+        this.seq = seq;
+    }
+
     public String getContent() {
         return content;
     }
@@ -28,9 +28,6 @@ public class Profile {
     @Column(name = "default_persona", length = 100)
     private String defaultPersona;
 
-    @Column(name = "linked_chat_room_ids", columnDefinition = "TEXT")
-    private String linkedChatRoomIds;
-
     @Column(name = "is_default", nullable = false)
     private Boolean isDefault = false;
 
@@ -90,14 +87,6 @@ public class Profile {
         this.defaultPersona = defaultPersona;
     }
 
-    public String getLinkedChatRoomIds() {
-        return linkedChatRoomIds;
-    }
-
-    public void setLinkedChatRoomIds(String linkedChatRoomIds) {
-        this.linkedChatRoomIds = linkedChatRoomIds;
-    }
-
     public Boolean getIsDefault() {
         return isDefault;
     }
@@ -0,0 +1,64 @@
+package com.example.demo.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * 프로필 - 채팅방 할당 (사용자당 채팅방 하나는 하나의 프로필에만 할당됨)
+ */
+@Entity
+@Table(name = "profile_chat_rooms", schema = "hackerton",
+    uniqueConstraints = @UniqueConstraint(name = "uq_profile_chat_rooms_user_room", columnNames = {"user_id", "chat_room_id"}),
+    indexes = {
+        @Index(name = "idx_profile_chat_rooms_profile", columnList = "profile_id"),
+        @Index(name = "idx_profile_chat_rooms_room", columnList = "chat_room_id")
+    })
+public class ProfileChatRoom {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // 프로필 소유자 (사용자별 유니크 제약을 위해 profile에서 비정규화)
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "profile_id", nullable = false)
+    private Profile profile;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "chat_room_id", nullable = false)
+    private ChatRoom chatRoom;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+
+    public ProfileChatRoom() {
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public Profile getProfile() {
+        return profile;
+    }
+
+    public ChatRoom getChatRoom() {
+        return chatRoom;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+}
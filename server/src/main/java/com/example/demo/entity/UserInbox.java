@@ -0,0 +1,169 @@
+package com.example.demo.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * 사용자별 채팅방 목록 projection (사용자 x 채팅방 한 행)
+ *
+ * 채팅방 목록에 필요한 값(표시 이름/아바타, 프로필 할당, 마지막 메시지, 안 읽은 수)을 미리 계산해 두어
+ * 목록 조회가 (user_id, last_message_time) 인덱스 범위 스캔 한 번으로 끝나도록 함.
+ * 원본 테이블이 변경될 때 UserInboxService가 같은 트랜잭션에서 갱신하고, 주기적인 rebuild로 어긋난 값을 바로잡음
+ */
+@Entity
+@Table(name = "user_inbox", schema = "hackerton",
+    uniqueConstraints = @UniqueConstraint(name = "uq_user_inbox_user_room", columnNames = {"user_id", "chat_room_id"}),
+    indexes = {
+        // 실제 인덱스는 last_message_time DESC NULLS LAST (V11 마이그레이션)
+        @Index(name = "idx_user_inbox_user_last_message", columnList = "user_id, last_message_time DESC, chat_room_id DESC"),
+        @Index(name = "idx_user_inbox_user_profile", columnList = "user_id, profile_id"),
+        @Index(name = "idx_user_inbox_room", columnList = "chat_room_id")
+    })
+public class UserInbox {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "chat_room_id", nullable = false)
+    private ChatRoom chatRoom;
+
+    // 이 채팅방이 할당된 (기본 프로필이 아닌) 프로필. null이면 기본 프로필에 표시
+    @Column(name = "profile_id")
+    private Long profileId;
+
+    @Column(name = "display_name", length = 100)
+    private String displayName;
+
+    @Column(name = "display_avatar", columnDefinition = "TEXT")
+    private String displayAvatar;
+
+    @Column(name = "last_message_id")
+    private Long lastMessageId;
+
+    @Column(name = "last_message_preview", columnDefinition = "TEXT")
+    private String lastMessagePreview;
+
+    @Column(name = "last_message_time")
+    private LocalDateTime lastMessageTime;
+
+    @Column(name = "unread_count", nullable = false)
+    private Long unreadCount = 0L;
+
+    // 행이 바뀔 때마다 증가 (클라이언트 변경 감지용)
+    @Column(nullable = false)
+    private Long version = 0L;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    public UserInbox() {
+    }
+
+    public UserInbox(Long userId, ChatRoom chatRoom) {
+        this.userId = userId;
+        this.chatRoom = chatRoom;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public ChatRoom getChatRoom() {
+        return chatRoom;
+    }
+
+    public void setChatRoom(ChatRoom chatRoom) {
+        this.chatRoom = chatRoom;
+    }
+
+    public Long getProfileId() {
+        return profileId;
+    }
+
+    public void setProfileId(Long profileId) {
+        this.profileId = profileId;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    public void setDisplayName(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayAvatar() {
+        return displayAvatar;
+    }
+
+    public void setDisplayAvatar(String displayAvatar) {
+        this.displayAvatar = displayAvatar;
+    }
+
+    public Long getLastMessageId() {
+        return lastMessageId;
+    }
+
+    public void setLastMessageId(Long lastMessageId) {
+        this.lastMessageId = lastMessageId;
+    }
+
+    public String getLastMessagePreview() {
+        return lastMessagePreview;
+    }
+
+    public void setLastMessagePreview(String lastMessagePreview) {
+        this.lastMessagePreview = lastMessagePreview;
+    }
+
+    public LocalDateTime getLastMessageTime() {
+        return lastMessageTime;
+    }
+
+    public void setLastMessageTime(LocalDateTime lastMessageTime) {
+        this.lastMessageTime = lastMessageTime;
+    }
+
+    public Long getUnreadCount() {
+        return unreadCount;
+    }
+
+    public void setUnreadCount(Long unreadCount) {
+        this.unreadCount = unreadCount;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.demo.event;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 채팅 도메인 이벤트. 트랜잭션 커밋 후 ChatEventHub가 수신자들에게 전달함
+ */
+public class ChatEvent {
+
+    public static final String MESSAGE_CREATED = "message.created";
+    public static final String REACTION_ADDED = "reaction.added";
+    public static final String READ_UPDATED = "read.updated";
+    public static final String ROOM_CHANGED = "room.changed";
+
+    private final String type;
+    private final Long chatRoomId;
+    private final List<Long> recipientUserIds;
+    private final Object payload;
+    private final Function<Long, Object> payloadForRecipient;
+
+    public ChatEvent(String type, Long chatRoomId, Collection<Long> recipientUserIds, Object payload) {
+        this(type, chatRoomId, recipientUserIds, payload, null);
+    }
+
+    /**
+     * @param payloadForRecipient 수신자별로 내용이 다른 경우(isMine 등) 수신자 ID로 payload를 만드는 함수
+     */
+    public ChatEvent(String type, Long chatRoomId, Collection<Long> recipientUserIds, Object payload,
+                     Function<Long, Object> payloadForRecipient) {
+        this.type = type;
+        this.chatRoomId = chatRoomId;
+        this.recipientUserIds = List.copyOf(recipientUserIds);
+        this.payload = payload;
+        this.payloadForRecipient = payloadForRecipient;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public Long getChatRoomId() {
+        return chatRoomId;
+    }
+
+    public List<Long> getRecipientUserIds() {
+        return recipientUserIds;
+    }
+
+    public Object getPayload() {
+        return payload;
+    }
+
+    /**
+     * 수신자 시점의 payload (수신자별 함수가 없으면 공통 payload)
+     */
+    public Object getPayloadFor(Long userId) {
+        return payloadForRecipient != null ? payloadForRecipient.apply(userId) : payload;
+    }
+}
@@ -0,0 +1,192 @@
+package com.example.demo.event;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 사용자별 SSE 연결로 채팅 이벤트를 전달하는 in-process fan-out hub
+ *
+ * - 구독자마다 크기가 제한된 큐를 두고, 가득 차면 가장 오래된 이벤트를 버림 (느린 클라이언트 backpressure)
+ * - 전송은 구독자별로 한 번에 하나의 작업만 큐를 비우므로 이벤트 순서가 유지됨
+ * - 주기적인 heartbeat로 프록시 타임아웃을 막고 끊어진 연결을 정리함
+ */
+@Component
+public class ChatEventHub {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChatEventHub.class);
+
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicLong eventSequence = new AtomicLong();
+    private final ExecutorService dispatcher = Executors.newVirtualThreadPerTaskExecutor();
+    private final ScheduledExecutorService heartbeatScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "chat-event-heartbeat");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final int queueCapacity;
+    private final long emitterTimeoutMillis;
+
+    public ChatEventHub(@Value("${chat.events.queue-capacity:256}") int queueCapacity,
+                        @Value("${chat.events.heartbeat-interval:15s}") Duration heartbeatInterval,
+                        @Value("${chat.events.timeout:30m}") Duration emitterTimeout) {
+        this.queueCapacity = queueCapacity;
+        this.emitterTimeoutMillis = emitterTimeout.toMillis();
+        heartbeatScheduler.scheduleAtFixedRate(this::sendHeartbeats,
+                heartbeatInterval.toMillis(), heartbeatInterval.toMillis(), TimeUnit.MILLISECONDS);
+
+        logger.info("Chat event hub initialized (queueCapacity: {}, heartbeat: {}, timeout: {})",
+                queueCapacity, heartbeatInterval, emitterTimeout);
+    }
+
+    /**
+     * 사용자의 이벤트 스트림을 연다. 한 사용자가 여러 연결(탭, 기기)을 가질 수 있음
+     */
+    public SseEmitter subscribe(Long userId) {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMillis);
+        Subscriber subscriber = new Subscriber(userId, emitter);
+
+        subscribers.computeIfAbsent(userId, key -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(() -> unsubscribe(subscriber));
+        emitter.onError(error -> unsubscribe(subscriber));
+
+        // 연결 직후 한 번 전송하여 프록시 버퍼를 비움
+        subscriber.enqueue(SseEmitter.event().comment("connected"));
+
+        logger.info("User {} subscribed to chat events ({} connections)", userId, subscribers.get(userId).size());
+        return emitter;
+    }
+
+    /**
+     * 트랜잭션이 커밋된 뒤에만 전달하여 아직 저장되지 않은 데이터를 보내지 않도록 함
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChatEvent(ChatEvent event) {
+        String eventId = String.valueOf(eventSequence.incrementAndGet());
+        int delivered = 0;
+
+        for (Long userId : event.getRecipientUserIds()) {
+            Set<Subscriber> userSubscribers = subscribers.get(userId);
+            if (userSubscribers == null) {
+                continue;
+            }
+            Object payload = event.getPayloadFor(userId);
+            for (Subscriber subscriber : userSubscribers) {
+                subscriber.enqueue(SseEmitter.event()
+                        .id(eventId)
+                        .name(event.getType())
+                        .data(payload));
+                delivered++;
+            }
+        }
+
+        logger.debug("Chat event {} ({}) for room {} delivered to {} connections",
+                eventId, event.getType(), event.getChatRoomId(), delivered);
+    }
+
+    private void sendHeartbeats() {
+        for (Set<Subscriber> userSubscribers : subscribers.values()) {
+            for (Subscriber subscriber : userSubscribers) {
+                subscriber.enqueue(SseEmitter.event().comment("heartbeat"));
+            }
+        }
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        subscriber.close();
+        subscribers.computeIfPresent(subscriber.userId, (userId, userSubscribers) -> {
+            userSubscribers.remove(subscriber);
+            return userSubscribers.isEmpty() ? null : userSubscribers;
+        });
+        logger.debug("User {} unsubscribed from chat events", subscriber.userId);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeatScheduler.shutdownNow();
+        subscribers.values().forEach(userSubscribers -> userSubscribers.forEach(subscriber -> subscriber.emitter.complete()));
+        subscribers.clear();
+        dispatcher.shutdown();
+    }
+
+    private final class Subscriber {
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final Deque<SseEmitter.SseEventBuilder> queue = new ArrayDeque<>();
+        private boolean draining;
+        private boolean closed;
+        private long dropped;
+
+        private Subscriber(Long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        private void enqueue(SseEmitter.SseEventBuilder event) {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                if (queue.size() >= queueCapacity) {
+                    // 느린 클라이언트: 가장 오래된 이벤트를 버리고 최신 이벤트를 유지
+                    queue.pollFirst();
+                    dropped++;
+                    if (dropped == 1 || dropped % 100 == 0) {
+                        logger.warn("Chat event queue full for user {}, dropped {} events so far", userId, dropped);
+                    }
+                }
+                queue.addLast(event);
+                if (draining) {
+                    return;
+                }
+                draining = true;
+            }
+            dispatcher.execute(this::drain);
+        }
+
+        private void drain() {
+            while (true) {
+                SseEmitter.SseEventBuilder next;
+                synchronized (this) {
+                    next = closed ? null : queue.pollFirst();
+                    if (next == null) {
+                        draining = false;
+                        return;
+                    }
+                }
+                try {
+                    emitter.send(next);
+                } catch (Exception e) {
+                    logger.debug("Failed to send chat event to user {}, closing connection: {}", userId, e.getMessage());
+                    emitter.completeWithError(e);
+                    unsubscribe(this);
+                    return;
+                }
+            }
+        }
+
+        private void close() {
+            synchronized (this) {
+                closed = true;
+                queue.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.demo.event;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Long-poll 요청을 채팅방별로 대기시키고, 새 메시지가 커밋되면 깨우는 registry
+ *
+ * 대기 중인 요청은 DeferredResult가 완료(응답, 타임아웃, 연결 끊김)되면 자동으로 제거됨
+ */
+@Component
+public class MessageWaiterRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(MessageWaiterRegistry.class);
+
+    private final Map<Long, Set<Waiter>> waiters = new ConcurrentHashMap<>();
+    private final ExecutorService wakeExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * 채팅방에 새 메시지가 생기면 onWake를 한 번 실행하도록 등록
+     *
+     * @return 등록 해제 핸들 (즉시 응답할 수 있게 된 경우 호출)
+     */
+    public Runnable await(Long chatRoomId, DeferredResult<?> result, Runnable onWake) {
+        Waiter waiter = new Waiter(chatRoomId, onWake);
+        waiters.computeIfAbsent(chatRoomId, key -> ConcurrentHashMap.newKeySet()).add(waiter);
+
+        Runnable cleanup = () -> remove(waiter);
+        result.onCompletion(cleanup);
+        result.onTimeout(cleanup);
+        result.onError(error -> cleanup.run());
+
+        logger.debug("Long-poll waiter registered for chatRoom {} ({} waiting)", chatRoomId, waiters.get(chatRoomId).size());
+        return cleanup;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChatEvent(ChatEvent event) {
+        if (!ChatEvent.MESSAGE_CREATED.equals(event.getType())) {
+            return;
+        }
+
+        Set<Waiter> roomWaiters = waiters.get(event.getChatRoomId());
+        if (roomWaiters == null) {
+            return;
+        }
+
+        int woken = 0;
+        for (Waiter waiter : roomWaiters) {
+            if (waiter.claim()) {
+                roomWaiters.remove(waiter);
+                // 응답 생성(DB 조회)은 메시지를 보낸 요청 스레드가 아닌 별도 스레드에서 수행
+                wakeExecutor.execute(waiter.onWake);
+                woken++;
+            }
+        }
+        waiters.computeIfPresent(event.getChatRoomId(), (chatRoomId, remaining) -> remaining.isEmpty() ? null : remaining);
+
+        logger.debug("Woke {} long-poll waiters for chatRoom {}", woken, event.getChatRoomId());
+    }
+
+    private void remove(Waiter waiter) {
+        waiter.claim();
+        waiters.computeIfPresent(waiter.chatRoomId, (chatRoomId, roomWaiters) -> {
+            roomWaiters.remove(waiter);
+            return roomWaiters.isEmpty() ? null : roomWaiters;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        waiters.clear();
+        wakeExecutor.shutdown();
+    }
+
+    private static final class Waiter {
+        private final Long chatRoomId;
+        private final Runnable onWake;
+        private final AtomicBoolean claimed = new AtomicBoolean();
+
+        private Waiter(Long chatRoomId, Runnable onWake) {
+            this.chatRoomId = chatRoomId;
+            this.onWake = onWake;
+        }
+
+        private boolean claim() {
+            return claimed.compareAndSet(false, true);
+        }
+    }
+}
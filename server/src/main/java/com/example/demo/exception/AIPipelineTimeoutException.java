@@ -0,0 +1,11 @@
+package com.example.demo.exception;
+
+/**
+ * 메시지 전송 중 감정 검사가 ai.pipeline.timeout 안에 끝나지 않아 전송을 거절한 경우 (503)
+ * 검사하지 않은 원문을 대신 보내지 않기 위해 사용함
+ */
+public class AIPipelineTimeoutException extends RuntimeException {
+    public AIPipelineTimeoutException(String message) {
+        super(message);
+    }
+}
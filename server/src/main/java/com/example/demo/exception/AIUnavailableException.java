@@ -0,0 +1,11 @@
+package com.example.demo.exception;
+
+/**
+ * AI 호출을 시도하지 않고 바로 거절한 경우 (circuit breaker open, bulkhead 포화)
+ * 호출하는 쪽은 로컬 fallback으로 응답함. 자주 발생할 수 있으므로 stack trace는 만들지 않음
+ */
+public class AIUnavailableException extends RuntimeException {
+    public AIUnavailableException(String message) {
+        super(message, null, false, false);
+    }
+}
@@ -10,6 +10,8 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.context.request.WebRequest;
 
+import java.util.concurrent.CancellationException;
+
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
@@ -41,6 +43,22 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
     }
 
+    // 전송 중 감정 검사가 제한 시간 안에 끝나지 않아 거절된 메시지 (MessageService parallel 파이프라인)
+    @ExceptionHandler(AIPipelineTimeoutException.class)
+    public ResponseEntity<ApiResponse<Void>> handleAIPipelineTimeoutException(AIPipelineTimeoutException ex, WebRequest request) {
+        logger.warn("AI pipeline timed out: {}", ex.getMessage());
+        ApiResponse<Void> response = ApiResponse.error("AI_TIMEOUT", "Emotion check timed out, please try sending again");
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(response);
+    }
+
+    // 같은 draft에 대한 더 새로운 AI 요청이 들어와 취소된 요청 (AIRequestRegistry)
+    @ExceptionHandler(CancellationException.class)
+    public ResponseEntity<ApiResponse<Void>> handleCancellationException(CancellationException ex, WebRequest request) {
+        logger.debug("Request superseded: {}", request.getDescription(false));
+        ApiResponse<Void> response = ApiResponse.error("SUPERSEDED", "A newer request replaced this one");
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ApiResponse<Void>> handleGlobalException(Exception ex, WebRequest request) {
         logger.error("Internal server error: {}", ex.getMessage(), ex);
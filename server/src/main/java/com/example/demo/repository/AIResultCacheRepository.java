@@ -0,0 +1,38 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.AIResultCacheEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface AIResultCacheRepository extends JpaRepository<AIResultCacheEntry, String> {
+
+    @Query(value = "SELECT result FROM hackerton.ai_result_cache " +
+                   "WHERE cache_key = :cacheKey AND expires_at > CURRENT_TIMESTAMP", nativeQuery = true)
+    Optional<String> findResult(@Param("cacheKey") String cacheKey);
+
+    @Modifying
+    @Query(value = "INSERT INTO hackerton.ai_result_cache (cache_key, kind, model, prompt_version, result, created_at, expires_at) " +
+                   "VALUES (:cacheKey, :kind, :model, :promptVersion, :result, CURRENT_TIMESTAMP, :expiresAt) " +
+                   "ON CONFLICT (cache_key) DO UPDATE SET result = EXCLUDED.result, " +
+                   "created_at = EXCLUDED.created_at, expires_at = EXCLUDED.expires_at", nativeQuery = true)
+    int upsert(@Param("cacheKey") String cacheKey,
+               @Param("kind") String kind,
+               @Param("model") String model,
+               @Param("promptVersion") String promptVersion,
+               @Param("result") String result,
+               @Param("expiresAt") LocalDateTime expiresAt);
+
+    // 만료되었거나 현재 프롬프트 버전이 아닌 행 정리
+    @Modifying
+    @Query(value = "DELETE FROM hackerton.ai_result_cache " +
+                   "WHERE expires_at <= CURRENT_TIMESTAMP OR prompt_version <> :promptVersion", nativeQuery = true)
+    int deleteStale(@Param("promptVersion") String promptVersion);
+
+}
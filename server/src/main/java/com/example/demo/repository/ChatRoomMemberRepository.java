@@ -2,10 +2,12 @@ package com.example.demo.repository;
 
 import com.example.demo.entity.ChatRoomMember;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,6 +21,19 @@ public interface ChatRoomMemberRepository extends JpaRepository<ChatRoomMember,
 
     List<ChatRoomMember> findByUserId(Long userId);
 
+    @Query("SELECT crm FROM ChatRoomMember crm JOIN FETCH crm.user WHERE crm.chatRoom.id IN :chatRoomIds")
+    List<ChatRoomMember> findByChatRoomIdIn(@Param("chatRoomIds") Collection<Long> chatRoomIds);
+
+    @Query("SELECT crm.user.id FROM ChatRoomMember crm WHERE crm.chatRoom.id = :chatRoomId")
+    List<Long> findUserIdsByChatRoomId(@Param("chatRoomId") Long chatRoomId);
+
+    // 주어진 채팅방 중 사용자가 멤버인 채팅방 ID
+    @Query("SELECT crm.chatRoom.id FROM ChatRoomMember crm WHERE crm.user.id = :userId AND crm.chatRoom.id IN :chatRoomIds")
+    List<Long> findMemberChatRoomIds(@Param("userId") Long userId, @Param("chatRoomIds") Collection<Long> chatRoomIds);
+
+    @Query("SELECT crm.lastReadMessageId FROM ChatRoomMember crm WHERE crm.chatRoom.id = :chatRoomId AND crm.user.id = :userId")
+    Long findLastReadMessageId(@Param("chatRoomId") Long chatRoomId, @Param("userId") Long userId);
+
     @Query("SELECT COUNT(m) FROM Message m " +
            "WHERE m.chatRoom.id = :chatRoomId " +
            "AND m.id > COALESCE(:lastReadMessageId, 0) " +
@@ -28,4 +43,59 @@ public interface ChatRoomMemberRepository extends JpaRepository<ChatRoomMember,
         @Param("lastReadMessageId") Long lastReadMessageId,
         @Param("currentUserId") Long currentUserId
     );
+
+    /**
+     * 여러 채팅방의 안 읽은 메시지 수를 한 번의 GROUP BY 쿼리로 계산 (안 읽은 메시지가 없는 방은 결과에 없음)
+     *
+     * @return [chatRoomId, unreadCount] 목록
+     */
+    @Query("SELECT m.chatRoom.id, COUNT(m) FROM Message m, ChatRoomMember crm " +
+           "WHERE crm.chatRoom.id = m.chatRoom.id " +
+           "AND crm.user.id = :userId " +
+           "AND m.chatRoom.id IN :chatRoomIds " +
+           "AND m.id > COALESCE(crm.lastReadMessageId, 0) " +
+           "AND m.sender.id != :userId " +
+           "GROUP BY m.chatRoom.id")
+    List<Object[]> countUnreadMessagesByChatRoomIds(
+        @Param("userId") Long userId,
+        @Param("chatRoomIds") Collection<Long> chatRoomIds
+    );
+
+    /**
+     * 여러 채팅방의 멤버별 안 읽은 메시지 수를 한 번에 계산
+     *
+     * @return [chatRoomId, userId, unreadCount] 목록
+     */
+    @Query("SELECT crm.chatRoom.id, crm.user.id, COUNT(m) FROM Message m, ChatRoomMember crm " +
+           "WHERE crm.chatRoom.id = m.chatRoom.id " +
+           "AND m.chatRoom.id IN :chatRoomIds " +
+           "AND m.id > COALESCE(crm.lastReadMessageId, 0) " +
+           "AND m.sender.id != crm.user.id " +
+           "GROUP BY crm.chatRoom.id, crm.user.id")
+    List<Object[]> countUnreadMessagesByMember(@Param("chatRoomIds") Collection<Long> chatRoomIds);
+
+    /**
+     * 읽음 watermark를 전진시킴 (이미 더 앞선 위치라면 변경하지 않음)
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE ChatRoomMember crm SET crm.lastReadMessageId = :messageId " +
+           "WHERE crm.id = :memberId " +
+           "AND (crm.lastReadMessageId IS NULL OR crm.lastReadMessageId < :messageId)")
+    int advanceLastReadMessageId(@Param("memberId") Long memberId, @Param("messageId") Long messageId);
+
+    /**
+     * 여러 채팅방의 읽음 watermark를 각 방의 최신 메시지까지 한 번의 UPDATE로 전진시킴
+     *
+     * @return watermark가 전진한 채팅방 수
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE hackerton.chat_room_members crm " +
+                   "SET last_read_message_id = latest.max_message_id " +
+                   "FROM (SELECT chat_room_id, MAX(id) AS max_message_id FROM hackerton.messages " +
+                   "      WHERE chat_room_id IN (:chatRoomIds) GROUP BY chat_room_id) latest " +
+                   "WHERE crm.chat_room_id = latest.chat_room_id " +
+                   "AND crm.user_id = :userId " +
+                   "AND (crm.last_read_message_id IS NULL OR crm.last_read_message_id < latest.max_message_id)",
+           nativeQuery = true)
+    int markLatestAsRead(@Param("userId") Long userId, @Param("chatRoomIds") Collection<Long> chatRoomIds);
 }
@@ -2,6 +2,7 @@ package com.example.demo.repository;
 
 import com.example.demo.entity.ChatRoom;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -15,4 +16,15 @@ public interface ChatRoomRepository extends JpaRepository<ChatRoom, Long> {
            "JOIN ChatRoomMember crm ON cr.id = crm.chatRoom.id " +
            "WHERE crm.user.id = :userId")
     List<ChatRoom> findByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT cr.id FROM ChatRoom cr ORDER BY cr.id")
+    List<Long> findAllIds();
+
+    // 메시지 순번 할당: UPDATE가 채팅방 행에 잠금을 걸어 커밋 전까지 같은 방의 다른 전송은 대기함
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE hackerton.chat_rooms SET last_message_seq = last_message_seq + 1 WHERE id = :chatRoomId", nativeQuery = true)
+    int incrementLastMessageSeq(@Param("chatRoomId") Long chatRoomId);
+
+    @Query("SELECT cr.lastMessageSeq FROM ChatRoom cr WHERE cr.id = :chatRoomId")
+    Long findLastMessageSeq(@Param("chatRoomId") Long chatRoomId);
 }
@@ -0,0 +1,23 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.ChatRoomSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ChatRoomSummaryRepository extends JpaRepository<ChatRoomSummary, Long> {
+
+    // 더 최근 메시지까지 반영한 요약만 저장 (동시에 갱신된 경우 오래된 결과가 덮어쓰지 않도록 함)
+    @Modifying
+    @Query(value = "INSERT INTO hackerton.chat_room_summaries (chat_room_id, summary, last_seq, updated_at) " +
+                   "VALUES (:chatRoomId, :summary, :lastSeq, CURRENT_TIMESTAMP) " +
+                   "ON CONFLICT (chat_room_id) DO UPDATE SET summary = EXCLUDED.summary, " +
+                   "last_seq = EXCLUDED.last_seq, updated_at = EXCLUDED.updated_at " +
+                   "WHERE hackerton.chat_room_summaries.last_seq < EXCLUDED.last_seq", nativeQuery = true)
+    int upsertIfNewer(@Param("chatRoomId") Long chatRoomId,
+                      @Param("summary") String summary,
+                      @Param("lastSeq") Long lastSeq);
+}
@@ -7,18 +7,67 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
-import java.util.Optional;
 
 @Repository
-public interface MessageRepository extends JpaRepository<Message, Long> {
+public interface MessageRepository extends JpaRepository<Message, Long>, MessageRepositoryCustom {
 
     @Query("SELECT m FROM Message m JOIN FETCH m.sender WHERE m.chatRoom.id = :chatRoomId ORDER BY m.timestamp ASC")
     List<Message> findByChatRoomIdOrderByTimestampAsc(@Param("chatRoomId") Long chatRoomId);
 
-    @Query(value = "SELECT * FROM hackerton.messages WHERE chat_room_id = :chatRoomId ORDER BY timestamp DESC LIMIT 1", nativeQuery = true)
-    Optional<Message> findFirstByChatRoomIdOrderByTimestampDesc(@Param("chatRoomId") Long chatRoomId);
-
     @Query("SELECT m FROM Message m JOIN FETCH m.sender WHERE m.chatRoom.id = :chatRoomId AND m.timestamp > :since ORDER BY m.timestamp ASC")
     List<Message> findNewMessages(@Param("chatRoomId") Long chatRoomId, @Param("since") LocalDateTime since);
+
+    // 채팅방별 마지막 메시지를 한 번에 조회: (chat_room_id, seq) 인덱스로 방마다 한 행만 읽음
+    @Query(value = "SELECT DISTINCT ON (chat_room_id) * FROM hackerton.messages " +
+                   "WHERE chat_room_id IN (:chatRoomIds) " +
+                   "ORDER BY chat_room_id, seq DESC", nativeQuery = true)
+    List<Message> findLatestByChatRoomIds(@Param("chatRoomIds") Collection<Long> chatRoomIds);
+
+    // Keyset 페이지 조회: (chat_room_id, timestamp, id) 인덱스를 따라 limit 만큼만 읽음
+    @Query(value = "SELECT * FROM hackerton.messages WHERE chat_room_id = :chatRoomId " +
+                   "ORDER BY timestamp DESC, id DESC LIMIT :limit", nativeQuery = true)
+    List<Message> findLatestPage(@Param("chatRoomId") Long chatRoomId, @Param("limit") int limit);
+
+    @Query(value = "SELECT * FROM hackerton.messages WHERE chat_room_id = :chatRoomId " +
+                   "AND (timestamp, id) < (:timestamp, :id) " +
+                   "ORDER BY timestamp DESC, id DESC LIMIT :limit", nativeQuery = true)
+    List<Message> findPageBefore(@Param("chatRoomId") Long chatRoomId,
+                                 @Param("timestamp") LocalDateTime timestamp,
+                                 @Param("id") Long id,
+                                 @Param("limit") int limit);
+
+    @Query(value = "SELECT * FROM hackerton.messages WHERE chat_room_id = :chatRoomId " +
+                   "AND (timestamp, id) > (:timestamp, :id) " +
+                   "ORDER BY timestamp ASC, id ASC LIMIT :limit", nativeQuery = true)
+    List<Message> findPageAfter(@Param("chatRoomId") Long chatRoomId,
+                                @Param("timestamp") LocalDateTime timestamp,
+                                @Param("id") Long id,
+                                @Param("limit") int limit);
+
+    @Query(value = "SELECT * FROM hackerton.messages WHERE chat_room_id = :chatRoomId " +
+                   "AND timestamp >= :timestamp " +
+                   "ORDER BY timestamp ASC, id ASC LIMIT :limit", nativeQuery = true)
+    List<Message> findPageFrom(@Param("chatRoomId") Long chatRoomId,
+                               @Param("timestamp") LocalDateTime timestamp,
+                               @Param("limit") int limit);
+
+    // 프롬프트용 최근 대화: (chat_room_id, seq) 인덱스를 역순으로 limit 만큼만 읽음 (최신순)
+    @Query(value = "SELECT * FROM hackerton.messages WHERE chat_room_id = :chatRoomId " +
+                   "ORDER BY seq DESC LIMIT :limit", nativeQuery = true)
+    List<Message> findRecent(@Param("chatRoomId") Long chatRoomId, @Param("limit") int limit);
+
+    // 순번 기반 poll: (chat_room_id, seq) 유니크 인덱스 범위 스캔
+    @Query(value = "SELECT * FROM hackerton.messages WHERE chat_room_id = :chatRoomId " +
+                   "AND seq > :afterSeq ORDER BY seq ASC LIMIT :limit", nativeQuery = true)
+    List<Message> findAfterSeq(@Param("chatRoomId") Long chatRoomId,
+                               @Param("afterSeq") Long afterSeq,
+                               @Param("limit") int limit);
+
+    @Query(value = "SELECT * FROM hackerton.messages WHERE chat_room_id = :chatRoomId " +
+                   "AND seq BETWEEN :fromSeq AND :toSeq ORDER BY seq ASC", nativeQuery = true)
+    List<Message> findSeqRange(@Param("chatRoomId") Long chatRoomId,
+                               @Param("fromSeq") Long fromSeq,
+                               @Param("toSeq") Long toSeq);
 }
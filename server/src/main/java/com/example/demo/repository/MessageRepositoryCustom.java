@@ -0,0 +1,15 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.Message;
+
+import java.util.List;
+import java.util.Map;
+
+public interface MessageRepositoryCustom {
+
+    /**
+     * 여러 채팅방의 커서(chatRoomId -> afterSeq) 이후 메시지를 한 번의 쿼리로 조회
+     * 사용자가 멤버인 채팅방만 포함되며 채팅방별로 최대 limitPerRoom건, (chatRoomId, seq) 순으로 정렬됨
+     */
+    List<Message> findAfterCursors(Long userId, Map<Long, Long> cursors, int limitPerRoom);
+}
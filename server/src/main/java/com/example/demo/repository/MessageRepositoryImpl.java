@@ -0,0 +1,52 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.Message;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+public class MessageRepositoryImpl implements MessageRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Message> findAfterCursors(Long userId, Map<Long, Long> cursors, int limitPerRoom) {
+        if (cursors.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        // 커서 목록을 VALUES로 넘기고 채팅방마다 LATERAL 서브쿼리로 (chat_room_id, seq) 인덱스 범위 스캔
+        // 한 방에 메시지가 몰려도 다른 방이 잘리지 않도록 채팅방별로 개수를 제한함
+        StringBuilder values = new StringBuilder();
+        int index = 0;
+        for (int i = 0; i < cursors.size(); i++) {
+            if (i > 0) {
+                values.append(", ");
+            }
+            values.append("(CAST(:room").append(i).append(" AS BIGINT), CAST(:seq").append(i).append(" AS BIGINT))");
+        }
+
+        String sql = "SELECT m.* FROM (VALUES " + values + ") AS c(chat_room_id, after_seq) " +
+                     "JOIN hackerton.chat_room_members crm ON crm.chat_room_id = c.chat_room_id AND crm.user_id = :userId " +
+                     "CROSS JOIN LATERAL (SELECT * FROM hackerton.messages msg " +
+                     "                    WHERE msg.chat_room_id = c.chat_room_id AND msg.seq > c.after_seq " +
+                     "                    ORDER BY msg.seq LIMIT :limitPerRoom) m " +
+                     "ORDER BY m.chat_room_id, m.seq";
+
+        Query query = entityManager.createNativeQuery(sql, Message.class)
+                .setParameter("userId", userId)
+                .setParameter("limitPerRoom", limitPerRoom);
+        for (Map.Entry<Long, Long> cursor : cursors.entrySet()) {
+            query.setParameter("room" + index, cursor.getKey());
+            query.setParameter("seq" + index, cursor.getValue() == null ? 0L : Math.max(cursor.getValue(), 0L));
+            index++;
+        }
+        return query.getResultList();
+    }
+}
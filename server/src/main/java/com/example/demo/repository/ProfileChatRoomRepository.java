@@ -0,0 +1,56 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.Profile;
+import com.example.demo.entity.ProfileChatRoom;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ProfileChatRoomRepository extends JpaRepository<ProfileChatRoom, Long> {
+
+    // 사용자가 채팅방을 할당한 프로필: (user_id, chat_room_id) 유니크 인덱스 조회
+    @Query("SELECT pcr.profile FROM ProfileChatRoom pcr WHERE pcr.userId = :userId AND pcr.chatRoom.id = :chatRoomId")
+    Optional<Profile> findProfileByUserIdAndChatRoomId(@Param("userId") Long userId, @Param("chatRoomId") Long chatRoomId);
+
+    @Query("SELECT pcr FROM ProfileChatRoom pcr JOIN FETCH pcr.profile " +
+           "WHERE pcr.userId IN :userIds AND pcr.chatRoom.id IN :chatRoomIds")
+    List<ProfileChatRoom> findByUserIdInAndChatRoomIdIn(@Param("userIds") Collection<Long> userIds,
+                                                        @Param("chatRoomIds") Collection<Long> chatRoomIds);
+
+    @Query("SELECT pcr.chatRoom.id FROM ProfileChatRoom pcr WHERE pcr.profile.id = :profileId ORDER BY pcr.id")
+    List<Long> findChatRoomIdsByProfileId(@Param("profileId") Long profileId);
+
+    // [profileId, chatRoomId] 목록
+    @Query("SELECT pcr.profile.id, pcr.chatRoom.id FROM ProfileChatRoom pcr WHERE pcr.profile.id IN :profileIds ORDER BY pcr.id")
+    List<Object[]> findChatRoomIdsByProfileIdIn(@Param("profileIds") Collection<Long> profileIds);
+
+    /**
+     * 채팅방들을 프로필에 할당. 이미 다른 프로필에 할당된 채팅방은 이 프로필로 옮겨짐 (사용자당 채팅방 하나에 프로필 하나)
+     * 사용자가 멤버가 아닌 채팅방 ID는 무시됨
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO hackerton.profile_chat_rooms (user_id, profile_id, chat_room_id, created_at) " +
+                   "SELECT :userId, :profileId, crm.chat_room_id, CURRENT_TIMESTAMP FROM hackerton.chat_room_members crm " +
+                   "WHERE crm.user_id = :userId AND crm.chat_room_id IN (:chatRoomIds) " +
+                   "ON CONFLICT (user_id, chat_room_id) DO UPDATE SET profile_id = EXCLUDED.profile_id",
+           nativeQuery = true)
+    int assign(@Param("userId") Long userId,
+               @Param("profileId") Long profileId,
+               @Param("chatRoomIds") Collection<Long> chatRoomIds);
+
+    // 프로필에서 목록에 없는 채팅방 할당 해제 (해제된 채팅방은 기본 프로필에 표시됨)
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM ProfileChatRoom pcr WHERE pcr.profile.id = :profileId AND pcr.chatRoom.id NOT IN :chatRoomIds")
+    int unassignExcept(@Param("profileId") Long profileId, @Param("chatRoomIds") Collection<Long> chatRoomIds);
+
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM ProfileChatRoom pcr WHERE pcr.profile.id = :profileId")
+    int unassignAll(@Param("profileId") Long profileId);
+}
@@ -4,10 +4,16 @@ import com.example.demo.entity.Profile;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ProfileRepository extends JpaRepository<Profile, Long> {
 
     List<Profile> findByUserId(Long userId);
+
+    Optional<Profile> findByIdAndUserId(Long id, Long userId);
+
+    List<Profile> findByUserIdInOrderByIdAsc(Collection<Long> userIds);
 }
@@ -2,8 +2,11 @@ package com.example.demo.repository;
 
 import com.example.demo.entity.Reaction;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,6 +15,9 @@ public interface ReactionRepository extends JpaRepository<Reaction, Long> {
 
     List<Reaction> findByMessageId(Long messageId);
 
+    @Query("SELECT r FROM Reaction r JOIN FETCH r.user WHERE r.message.id IN :messageIds ORDER BY r.id ASC")
+    List<Reaction> findByMessageIdIn(@Param("messageIds") Collection<Long> messageIds);
+
     Optional<Reaction> findByMessageIdAndUserIdAndEmoji(Long messageId, Long userId, String emoji);
 
     void deleteByMessageIdAndUserIdAndEmoji(Long messageId, Long userId, String emoji);
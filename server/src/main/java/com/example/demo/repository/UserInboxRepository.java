@@ -0,0 +1,118 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.UserInbox;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface UserInboxRepository extends JpaRepository<UserInbox, Long> {
+
+    // 채팅방 목록: (user_id, last_message_time DESC NULLS LAST, chat_room_id DESC) 인덱스 순서 그대로 읽음 (메시지가 없는 방은 맨 뒤)
+    @Query("SELECT ui FROM UserInbox ui JOIN FETCH ui.chatRoom " +
+           "WHERE ui.userId = :userId ORDER BY ui.lastMessageTime DESC NULLS LAST, ui.chatRoom.id DESC")
+    List<UserInbox> findByUserId(@Param("userId") Long userId);
+
+    // 기본 프로필: 다른 프로필에 할당되지 않은 채팅방
+    @Query("SELECT ui FROM UserInbox ui JOIN FETCH ui.chatRoom " +
+           "WHERE ui.userId = :userId AND ui.profileId IS NULL " +
+           "ORDER BY ui.lastMessageTime DESC NULLS LAST, ui.chatRoom.id DESC")
+    List<UserInbox> findUnassignedByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT ui FROM UserInbox ui JOIN FETCH ui.chatRoom " +
+           "WHERE ui.userId = :userId AND ui.profileId = :profileId " +
+           "ORDER BY ui.lastMessageTime DESC NULLS LAST, ui.chatRoom.id DESC")
+    List<UserInbox> findByUserIdAndProfileId(@Param("userId") Long userId, @Param("profileId") Long profileId);
+
+    /**
+     * 새 메시지 반영: 채팅방의 모든 멤버 행에 마지막 메시지를 기록하고 발신자가 아닌 멤버의 안 읽은 수를 증가
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE hackerton.user_inbox " +
+                   "SET last_message_id = :messageId, last_message_preview = :preview, last_message_time = :timestamp, " +
+                   "    unread_count = unread_count + CASE WHEN user_id <> :senderId THEN 1 ELSE 0 END, " +
+                   "    version = version + 1, updated_at = CURRENT_TIMESTAMP " +
+                   "WHERE chat_room_id = :chatRoomId " +
+                   "AND (last_message_id IS NULL OR last_message_id < :messageId)",
+           nativeQuery = true)
+    int recordMessage(@Param("chatRoomId") Long chatRoomId,
+                      @Param("messageId") Long messageId,
+                      @Param("senderId") Long senderId,
+                      @Param("preview") String preview,
+                      @Param("timestamp") LocalDateTime timestamp);
+
+    /**
+     * 읽음 처리 후 안 읽은 수를 watermark 기준으로 다시 계산
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE hackerton.user_inbox ui " +
+                   "SET unread_count = (SELECT COUNT(*) FROM hackerton.messages m " +
+                   "                    WHERE m.chat_room_id = ui.chat_room_id " +
+                   "                    AND m.id > COALESCE(crm.last_read_message_id, 0) " +
+                   "                    AND m.sender_id <> ui.user_id), " +
+                   "    version = ui.version + 1, updated_at = CURRENT_TIMESTAMP " +
+                   "FROM hackerton.chat_room_members crm " +
+                   "WHERE crm.chat_room_id = ui.chat_room_id AND crm.user_id = ui.user_id " +
+                   "AND ui.user_id = :userId AND ui.chat_room_id IN (:chatRoomIds)",
+           nativeQuery = true)
+    int refreshUnreadCounts(@Param("userId") Long userId, @Param("chatRoomIds") Collection<Long> chatRoomIds);
+
+    /**
+     * 표시 이름/아바타, 프로필 할당을 upsert (행이 없으면 생성, 값이 바뀐 경우에만 갱신)
+     * 마지막 메시지/안 읽은 수 컬럼은 건드리지 않으므로 동시에 실행된 recordMessage 결과를 덮어쓰지 않음
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO hackerton.user_inbox (user_id, chat_room_id, profile_id, display_name, display_avatar) " +
+                   "VALUES (:userId, :chatRoomId, :profileId, :displayName, :displayAvatar) " +
+                   "ON CONFLICT (user_id, chat_room_id) DO UPDATE " +
+                   "SET profile_id = EXCLUDED.profile_id, display_name = EXCLUDED.display_name, " +
+                   "    display_avatar = EXCLUDED.display_avatar, " +
+                   "    version = hackerton.user_inbox.version + 1, updated_at = CURRENT_TIMESTAMP " +
+                   "WHERE (hackerton.user_inbox.profile_id, hackerton.user_inbox.display_name, hackerton.user_inbox.display_avatar) " +
+                   "      IS DISTINCT FROM (EXCLUDED.profile_id, EXCLUDED.display_name, EXCLUDED.display_avatar)",
+           nativeQuery = true)
+    int upsertDisplay(@Param("userId") Long userId,
+                      @Param("chatRoomId") Long chatRoomId,
+                      @Param("profileId") Long profileId,
+                      @Param("displayName") String displayName,
+                      @Param("displayAvatar") String displayAvatar);
+
+    /**
+     * 마지막 메시지와 안 읽은 수를 원본 테이블 기준으로 다시 계산 (값이 바뀐 행만 갱신)
+     * 문장 실행 시점의 커밋된 값을 읽으므로, 아직 커밋되지 않은 메시지는 해당 트랜잭션의 recordMessage가 이후에 반영함
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE hackerton.user_inbox ui " +
+                   "SET last_message_id = latest.id, last_message_preview = latest.preview, " +
+                   "    last_message_time = latest.timestamp, unread_count = counts.unread, " +
+                   "    version = ui.version + 1, updated_at = CURRENT_TIMESTAMP " +
+                   "FROM hackerton.chat_room_members crm " +
+                   "LEFT JOIN LATERAL (SELECT m.id, LEFT(m.content, 100) AS preview, m.timestamp " +
+                   "                   FROM hackerton.messages m WHERE m.chat_room_id = crm.chat_room_id " +
+                   "                   ORDER BY m.seq DESC LIMIT 1) latest ON true " +
+                   "CROSS JOIN LATERAL (SELECT COUNT(*) AS unread FROM hackerton.messages m " +
+                   "                    WHERE m.chat_room_id = crm.chat_room_id " +
+                   "                    AND m.id > COALESCE(crm.last_read_message_id, 0) " +
+                   "                    AND m.sender_id <> crm.user_id) counts " +
+                   "WHERE crm.chat_room_id = ui.chat_room_id AND crm.user_id = ui.user_id " +
+                   "AND ui.chat_room_id IN (:chatRoomIds) " +
+                   "AND (ui.last_message_id, ui.last_message_preview, ui.last_message_time, ui.unread_count) " +
+                   "    IS DISTINCT FROM (latest.id, latest.preview, latest.timestamp, counts.unread)",
+           nativeQuery = true)
+    int refreshLastMessages(@Param("chatRoomIds") Collection<Long> chatRoomIds);
+
+    // 더 이상 멤버가 아닌 (user, room) 행 정리
+    @Modifying(flushAutomatically = true)
+    @Query(value = "DELETE FROM hackerton.user_inbox ui " +
+                   "WHERE ui.chat_room_id IN (:chatRoomIds) " +
+                   "AND NOT EXISTS (SELECT 1 FROM hackerton.chat_room_members crm " +
+                   "                WHERE crm.chat_room_id = ui.chat_room_id AND crm.user_id = ui.user_id)",
+           nativeQuery = true)
+    int deleteOrphans(@Param("chatRoomIds") Collection<Long> chatRoomIds);
+}
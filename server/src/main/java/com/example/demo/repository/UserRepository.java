@@ -2,6 +2,9 @@ package com.example.demo.repository;
 
 import com.example.demo.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -11,5 +14,18 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     Optional<User> findByLdapIgnoreCase(String ldap);
 
+    // ldap은 항상 소문자로 저장되므로 정확히 일치 비교 (idx_users_ldap 사용)
+    Optional<User> findByLdap(String ldap);
+
+    /**
+     * 사용자가 없을 때만 생성. 동시에 처음 로그인해도 유니크 제약 위반 없이 한 건만 생성됨
+     *
+     * @return 생성된 행 수 (이미 있으면 0)
+     */
+    @Modifying
+    @Query(value = "INSERT INTO hackerton.users (ldap, name, avatar) VALUES (:ldap, :name, :avatar) " +
+                   "ON CONFLICT (ldap) DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("ldap") String ldap, @Param("name") String name, @Param("avatar") String avatar);
+
     boolean existsByLdapIgnoreCase(String ldap);
 }
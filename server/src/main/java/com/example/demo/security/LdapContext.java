@@ -1,17 +1,29 @@
 package com.example.demo.security;
 
+import java.util.function.Supplier;
+
+/**
+ * 현재 요청의 LDAP 사용자. ScopedValue로 바인딩되므로 바인딩한 범위를 벗어나면 자동으로 사라짐
+ * (가상 스레드에서도 스레드 풀 재사용으로 인한 값 누수나 정리 누락이 없음)
+ */
 public class LdapContext {
-    private static final ThreadLocal<String> ldapHolder = new ThreadLocal<>();
+    private static final ScopedValue<String> LDAP = ScopedValue.newInstance();
 
-    public static void setLdap(String ldap) {
-        ldapHolder.set(ldap);
+    public static String getLdap() {
+        return LDAP.orElse(null);
     }
 
-    public static String getLdap() {
-        return ldapHolder.get();
+    /**
+     * 주어진 사용자로 바인딩한 carrier. 요청 필터에서 체인 전체를 이 범위 안에서 실행함
+     */
+    public static ScopedValue.Carrier bind(String ldap) {
+        return ScopedValue.where(LDAP, ldap);
     }
 
-    public static void clear() {
-        ldapHolder.remove();
+    /**
+     * 요청 스레드 밖(비동기 작업 등)에서 특정 사용자로 작업을 실행
+     */
+    public static <T> T callAs(String ldap, Supplier<T> task) {
+        return ScopedValue.where(LDAP, ldap).get(task);
     }
 }
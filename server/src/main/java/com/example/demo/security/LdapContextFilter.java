@@ -0,0 +1,55 @@
+package com.example.demo.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * X-LDAP 헤더 값을 요청 처리 전체(필터 체인)에 걸쳐 LdapContext로 바인딩
+ * 헤더 검증과 401 응답은 LdapInterceptor가 담당함
+ */
+@Component
+public class LdapContextFilter extends OncePerRequestFilter {
+
+    private static final String LDAP_HEADER = "X-LDAP";
+    private static final String API_PREFIX = "/api/v1/";
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith(API_PREFIX);
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        // DeferredResult 등 비동기 dispatch에서도 인터셉터가 다시 실행되므로 같이 바인딩
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String ldap = request.getHeader(LDAP_HEADER);
+        if (ldap == null || ldap.trim().isEmpty()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        // Normalize LDAP to lowercase for case-insensitive comparison
+        String normalizedLdap = ldap.toLowerCase().trim();
+        try {
+            LdapContext.bind(normalizedLdap).call(() -> {
+                filterChain.doFilter(request, response);
+                return null;
+            });
+        } catch (IOException | ServletException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new ServletException(e);
+        }
+    }
+}
@@ -11,7 +11,6 @@ import org.springframework.web.servlet.HandlerInterceptor;
 public class LdapInterceptor implements HandlerInterceptor {
 
     private static final Logger logger = LoggerFactory.getLogger(LdapInterceptor.class);
-    private static final String LDAP_HEADER = "X-LDAP";
 
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
@@ -21,9 +20,10 @@ public class LdapInterceptor implements HandlerInterceptor {
             return true;
         }
 
-        String ldap = request.getHeader(LDAP_HEADER);
+        // 헤더 값은 LdapContextFilter가 정규화하여 바인딩함
+        String ldap = LdapContext.getLdap();
 
-        if (ldap == null || ldap.trim().isEmpty()) {
+        if (ldap == null) {
             logger.warn("Missing X-LDAP header for request: {} {}", request.getMethod(), request.getRequestURI());
             response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
             response.setContentType("application/json");
@@ -31,15 +31,7 @@ public class LdapInterceptor implements HandlerInterceptor {
             return false;
         }
 
-        // Normalize LDAP to lowercase for case-insensitive comparison
-        String normalizedLdap = ldap.toLowerCase().trim();
-        logger.debug("X-LDAP header found: {} (normalized to: {})", ldap, normalizedLdap);
-        LdapContext.setLdap(normalizedLdap);
+        logger.debug("X-LDAP header found: {}", ldap);
         return true;
     }
-
-    @Override
-    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) throws Exception {
-        LdapContext.clear();
-    }
 }
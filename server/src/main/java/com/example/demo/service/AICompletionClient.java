@@ -0,0 +1,189 @@
+package com.example.demo.service;
+
+import com.openai.client.OpenAIClient;
+import com.openai.core.RequestOptions;
+import com.openai.core.http.StreamResponse;
+import com.openai.models.chat.completions.ChatCompletion;
+import com.openai.models.chat.completions.ChatCompletionChunk;
+import com.openai.models.chat.completions.ChatCompletionCreateParams;
+import com.openai.models.completions.CompletionUsage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * 공유 OpenAI 클라이언트로 chat completion을 호출하는 진입점
+ *
+ * - 작업(operation)별 요청 timeout: ai.timeout.{operation} (없으면 ai.timeout.default)
+ * - 메트릭: ai.client.requests (작업/결과별 지연 시간), ai.client.in-flight (진행 중인 호출 수),
+ *   ai.client.tokens (작업/파이프라인 모드/종류별 사용 토큰 수, 모드는 PIPELINE_MODE 바인딩 값이며 없으면 "none")
+ * - 시작 직후 한 번 호출하여 TLS 연결을 미리 맺어 둠 (ai.warmup.enabled)
+ * - 모든 호출은 AIResilience(circuit breaker + 작업별 bulkhead)를 거치며, 거절되면 AIUnavailableException
+ */
+@Component
+public class AICompletionClient {
+
+    private static final Logger logger = LoggerFactory.getLogger(AICompletionClient.class);
+    private static final String REQUEST_METRIC = "ai.client.requests";
+    private static final String TOKENS_METRIC = "ai.client.tokens";
+
+    /**
+     * 호출을 발생시킨 sendMessage 파이프라인 모드 (토큰 메트릭 태그). StructuredTaskScope로 fork한 호출에도 그대로 전달됨
+     */
+    public static final ScopedValue<String> PIPELINE_MODE = ScopedValue.newInstance();
+
+    private final OpenAIClient client;
+    private final AIResilience aiResilience;
+    private final MeterRegistry meterRegistry;
+    private final Environment environment;
+    private final Duration defaultTimeout;
+    private final boolean warmupEnabled;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Map<String, RequestOptions> requestOptions = new ConcurrentHashMap<>();
+
+    @Autowired
+    public AICompletionClient(OpenAIClient client,
+                              AIResilience aiResilience,
+                              MeterRegistry meterRegistry,
+                              Environment environment,
+                              @Value("${ai.timeout.default:20s}") Duration defaultTimeout,
+                              @Value("${ai.warmup.enabled:true}") boolean warmupEnabled) {
+        this.client = client;
+        this.aiResilience = aiResilience;
+        this.meterRegistry = meterRegistry;
+        this.environment = environment;
+        this.defaultTimeout = defaultTimeout;
+        this.warmupEnabled = warmupEnabled;
+        Gauge.builder("ai.client.in-flight", inFlight, AtomicInteger::get).register(meterRegistry);
+    }
+
+    /**
+     * @return 첫 번째 choice의 응답 텍스트, 내용이 없으면 null
+     */
+    public String complete(String operation, ChatCompletionCreateParams params) {
+        return aiResilience.execute(operation, () -> doComplete(operation, params));
+    }
+
+    /**
+     * 스트리밍 API로 호출하여 텍스트 조각을 onDelta로 전달하고, 전체 응답 텍스트를 반환 (내용이 없으면 null)
+     */
+    public String completeStreaming(String operation, ChatCompletionCreateParams params, Consumer<String> onDelta) {
+        return aiResilience.execute(operation, () -> doCompleteStreaming(operation, params, delta -> {
+            try {
+                onDelta.accept(delta);
+            } catch (RuntimeException e) {
+                // 받는 쪽(SSE 연결 끊김 등)의 실패는 OpenAI 장애로 집계하지 않도록 취소로 전달
+                CancellationException cancellation = new CancellationException("Streaming consumer failed: " + e.getMessage());
+                cancellation.initCause(e);
+                throw cancellation;
+            }
+        }));
+    }
+
+    private String doComplete(String operation, ChatCompletionCreateParams params) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        inFlight.incrementAndGet();
+        String outcome = "error";
+        try {
+            ChatCompletion chatCompletion = client.chat().completions().create(params, requestOptions(operation));
+            outcome = "success";
+            chatCompletion.usage().ifPresent(usage -> recordTokens(operation, usage));
+            return chatCompletion.choices().stream()
+                    .findFirst()
+                    .flatMap(choice -> choice.message().content())
+                    .orElse(null);
+        } finally {
+            inFlight.decrementAndGet();
+            sample.stop(requestTimer(operation, outcome));
+        }
+    }
+
+    private String doCompleteStreaming(String operation, ChatCompletionCreateParams params, Consumer<String> onDelta) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        inFlight.incrementAndGet();
+        String outcome = "error";
+        StringBuilder content = new StringBuilder();
+        try (StreamResponse<ChatCompletionChunk> stream = client.chat().completions().createStreaming(params, requestOptions(operation))) {
+            stream.stream().forEach(chunk -> {
+                chunk.choices().stream()
+                        .findFirst()
+                        .flatMap(choice -> choice.delta().content())
+                        .filter(delta -> !delta.isEmpty())
+                        .ifPresent(delta -> {
+                            content.append(delta);
+                            onDelta.accept(delta);
+                        });
+                // 사용량은 stream_options.include_usage를 켠 요청의 마지막 조각에만 포함됨
+                chunk.usage().ifPresent(usage -> recordTokens(operation + "-stream", usage));
+            });
+            outcome = "success";
+        } finally {
+            inFlight.decrementAndGet();
+            sample.stop(requestTimer(operation + "-stream", outcome));
+        }
+        return content.isEmpty() ? null : content.toString();
+    }
+
+    /**
+     * 첫 요청이 TLS handshake 비용을 치르지 않도록 시작 직후 연결을 맺어 둠 (시작을 막지 않도록 별도 스레드에서 실행)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!warmupEnabled) {
+            return;
+        }
+        Thread.ofVirtual().name("openai-warmup").start(() -> {
+            long start = System.currentTimeMillis();
+            try {
+                client.models().list();
+                logger.info("OpenAI connection warmed up in {}ms", System.currentTimeMillis() - start);
+            } catch (Exception e) {
+                logger.warn("OpenAI warm-up failed: {}", e.getMessage());
+            }
+        });
+    }
+
+    private RequestOptions requestOptions(String operation) {
+        return requestOptions.computeIfAbsent(operation, key -> RequestOptions.builder()
+                .timeout(environment.getProperty("ai.timeout." + key, Duration.class, defaultTimeout))
+                .build());
+    }
+
+    private void recordTokens(String operation, CompletionUsage usage) {
+        String mode = PIPELINE_MODE.orElse("none");
+        tokenCounter(operation, mode, "prompt").increment(usage.promptTokens());
+        tokenCounter(operation, mode, "completion").increment(usage.completionTokens());
+    }
+
+    private Counter tokenCounter(String operation, String mode, String type) {
+        return Counter.builder(TOKENS_METRIC)
+                .tag("operation", operation)
+                .tag("mode", mode)
+                .tag("type", type)
+                .register(meterRegistry);
+    }
+
+    private Timer requestTimer(String operation, String outcome) {
+        return Timer.builder(REQUEST_METRIC)
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.demo.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Objects;
+
+/**
+ * AI 미리보기 결과 영수증 발급/검증
+ *
+ * /ai/transform, /ai/emotion-guard 결과를 (사용자, 채팅방, persona, 입력 텍스트 해시)와 함께 HMAC-SHA256으로 서명해 돌려주고,
+ * sendMessage에서 같은 내용으로 보내면 영수증의 결과를 그대로 사용하여 AI 호출을 생략함.
+ * 형식: base64url(JSON payload) + "." + base64url(HMAC)
+ *
+ * 영수증은 보낼 채팅방에 묶이므로 미리보기 요청에 채팅방 id(transform의 roomId, emotion-guard의 chatRoomId)가
+ * 있을 때만 발급함. 채팅방 없이 받은 미리보기는 전송할 때 검증될 수 없으므로 영수증을 내려주지 않음
+ *
+ * ai.receipt.secret이 없으면 시작할 때 임의의 키를 만들므로 영수증은 발급한 서버에서만, 재시작 전까지만 유효함
+ */
+@Service
+public class AIReceiptService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AIReceiptService.class);
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    public static final String KIND_TRANSFORM = "transform";
+    public static final String KIND_GUARD = "guard";
+
+    /**
+     * 영수증 내용. result는 변환 결과(transform) 또는 제안 문장(guard), aggressive는 guard 판정
+     */
+    public record Receipt(String kind, Long userId, Long chatRoomId, String persona, String inputHash,
+                          String result, Boolean aggressive, long expiresAt) {
+    }
+
+    private final ObjectMapper objectMapper;
+    private final SecretKeySpec key;
+    private final Duration ttl;
+
+    @Autowired
+    public AIReceiptService(ObjectMapper objectMapper,
+                            @Value("${ai.receipt.secret:}") String secret,
+                            @Value("${ai.receipt.ttl:10m}") Duration ttl) {
+        this.objectMapper = objectMapper;
+        this.ttl = ttl;
+
+        byte[] keyBytes;
+        if (secret == null || secret.isBlank()) {
+            keyBytes = new byte[32];
+            new SecureRandom().nextBytes(keyBytes);
+            logger.warn("ai.receipt.secret is not set; AI receipts are only valid on this instance until restart");
+        } else {
+            keyBytes = secret.getBytes(StandardCharsets.UTF_8);
+        }
+        this.key = new SecretKeySpec(keyBytes, HMAC_ALGORITHM);
+    }
+
+    public String issue(String kind, Long userId, Long chatRoomId, String persona, String input,
+                        String result, Boolean aggressive) {
+        if (input == null || input.isBlank()) {
+            return null;
+        }
+        if (chatRoomId == null) {
+            logger.debug("Skipped AI receipt: preview request has no chat room id");
+            return null;
+        }
+        Receipt receipt = new Receipt(kind, userId, chatRoomId, persona, hash(input), result, aggressive,
+                Instant.now().plus(ttl).getEpochSecond());
+        try {
+            String payload = Base64.getUrlEncoder().withoutPadding().encodeToString(objectMapper.writeValueAsBytes(receipt));
+            return payload + "." + sign(payload);
+        } catch (Exception e) {
+            logger.warn("Failed to issue AI receipt: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 서명, 만료, 종류, 사용자, 채팅방, persona, 입력 텍스트가 모두 일치할 때만 영수증을 반환
+     *
+     * @return 유효한 영수증, 아니면 null (호출하는 쪽에서 AI를 다시 호출)
+     */
+    public Receipt verify(String token, String kind, Long userId, Long chatRoomId, String persona, String input) {
+        if (token == null || token.isBlank() || input == null) {
+            return null;
+        }
+        int dot = token.indexOf('.');
+        if (dot <= 0) {
+            return null;
+        }
+        String payload = token.substring(0, dot);
+        try {
+            byte[] expected = sign(payload).getBytes(StandardCharsets.US_ASCII);
+            byte[] actual = token.substring(dot + 1).getBytes(StandardCharsets.US_ASCII);
+            if (!MessageDigest.isEqual(expected, actual)) {
+                logger.debug("Rejected AI receipt: bad signature");
+                return null;
+            }
+
+            Receipt receipt = objectMapper.readValue(Base64.getUrlDecoder().decode(payload), Receipt.class);
+            if (receipt.expiresAt() < Instant.now().getEpochSecond()) {
+                logger.debug("Rejected AI receipt: expired");
+                return null;
+            }
+            if (!kind.equals(receipt.kind())
+                    || !Objects.equals(userId, receipt.userId())
+                    || !Objects.equals(chatRoomId, receipt.chatRoomId())
+                    || !Objects.equals(persona, receipt.persona())
+                    || !hash(input).equals(receipt.inputHash())) {
+                logger.debug("Rejected AI receipt: does not match the message");
+                return null;
+            }
+            return receipt;
+        } catch (Exception e) {
+            logger.debug("Rejected AI receipt: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private String sign(String payload) throws GeneralSecurityException {
+        Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+        mac.init(key);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(mac.doFinal(payload.getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    private String hash(String input) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(input.getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
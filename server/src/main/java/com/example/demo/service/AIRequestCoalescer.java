@@ -0,0 +1,133 @@
+package com.example.demo.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * 같은 키(AIResultCache 키)로 동시에 진행 중인 AI 호출을 하나로 합치는 single-flight
+ *
+ * - 처음 들어온 호출(leader)만 실제로 실행하고, 같은 키의 다른 호출(follower)은 leader의 결과를 기다림
+ * - follower 수가 ai.coalesce.max-waiters를 넘으면 기다리지 않고 직접 호출함
+ * - leader가 실패하면 follower도 같은 예외로 실패함. 단, leader가 취소(interrupt)로 끝난 경우에는 follower가 직접 다시 호출
+ * - follower는 ai.coalesce.wait-timeout까지만 기다리고, 넘으면 TimeoutException(CompletionException으로 감쌈)으로 실패
+ */
+@Component
+public class AIRequestCoalescer {
+
+    private static final Logger logger = LoggerFactory.getLogger(AIRequestCoalescer.class);
+    private static final String METRIC_NAME = "ai.coalesce.requests";
+
+    private final Map<String, Flight> flights = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final int maxWaiters;
+    private final Duration waitTimeout;
+
+    @Autowired
+    public AIRequestCoalescer(MeterRegistry meterRegistry,
+                              @Value("${ai.coalesce.enabled:true}") boolean enabled,
+                              @Value("${ai.coalesce.max-waiters:100}") int maxWaiters,
+                              @Value("${ai.coalesce.wait-timeout:30s}") Duration waitTimeout) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.maxWaiters = maxWaiters;
+        this.waitTimeout = waitTimeout;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String key, Supplier<T> call) {
+        if (!enabled) {
+            return call.get();
+        }
+
+        Flight flight = new Flight();
+        Flight inFlight = flights.putIfAbsent(key, flight);
+        if (inFlight == null) {
+            count("leader");
+            return lead(key, flight, call);
+        }
+
+        if (inFlight.waiters.incrementAndGet() > maxWaiters) {
+            inFlight.waiters.decrementAndGet();
+            count("bypass");
+            return call.get();
+        }
+
+        count("follower");
+        try {
+            return (T) inFlight.future.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            count("timeout");
+            throw new CompletionException(new TimeoutException("Timed out after " + waitTimeout + " waiting for in-flight AI request"));
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (isCancellation(cause)) {
+                // leader만 취소된 것이므로 이 호출은 직접 실행
+                logger.debug("In-flight AI request was cancelled, retrying as an independent call");
+                return call.get();
+            }
+            throw new CompletionException(cause);
+        } catch (CancellationException e) {
+            // leader가 CancellationException으로 끝나면 get()은 ExecutionException으로 감싸지 않고 그대로 던짐
+            logger.debug("In-flight AI request was cancelled, retrying as an independent call");
+            return call.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while waiting for in-flight AI request");
+        } finally {
+            inFlight.waiters.decrementAndGet();
+        }
+    }
+
+    private <T> T lead(String key, Flight flight, Supplier<T> call) {
+        try {
+            T result = call.get();
+            flight.future.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            flight.future.completeExceptionally(e);
+            throw e;
+        } finally {
+            flights.remove(key, flight);
+        }
+    }
+
+    private boolean isCancellation(Throwable error) {
+        for (Throwable t = error; t != null; t = t.getCause()) {
+            if (t instanceof InterruptedException || t instanceof InterruptedIOException || t instanceof CancellationException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void count(String result) {
+        Counter.builder(METRIC_NAME)
+                .tag("result", result)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private static final class Flight {
+        private final CompletableFuture<Object> future = new CompletableFuture<>();
+        private final AtomicInteger waiters = new AtomicInteger();
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.demo.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * 입력 중 호출되는 AI 미리보기 요청의 latest-wins 관리
+ *
+ * (사용자, 채팅방, endpoint)마다 진행 중인 요청을 하나만 유지하고, 새 요청이 오면 이전 요청을 취소함.
+ * 요청은 항상 aiCancellableExecutor(가상 스레드)에서 실행되므로 요청 스레드는 바로 반환됨
+ * - 아직 시작 전이면 AI 호출 자체를 건너뜀
+ * - 실행 중이면 interrupt로 OpenAI 호출을 중단함
+ * 취소된 요청은 CancellationException으로 끝나며, 취소 수는 ai.requests.cancelled 메트릭으로 집계함
+ */
+@Component
+public class AIRequestRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(AIRequestRegistry.class);
+    private static final String CANCELLED_METRIC = "ai.requests.cancelled";
+
+    /**
+     * 채팅방 없이 호출된 요청의 scope (채팅방 id와 겹치지 않도록 별도 표시)
+     */
+    static final String NO_ROOM_SCOPE = "no-room";
+
+    /**
+     * @param scope 채팅방이면 "room:{id}", 채팅방이 없으면 NO_ROOM_SCOPE
+     */
+    public record RequestKey(Long userId, String scope, String endpoint) {
+
+        public static RequestKey of(Long userId, Long chatRoomId, String endpoint) {
+            return new RequestKey(userId, chatRoomId != null ? "room:" + chatRoomId : NO_ROOM_SCOPE, endpoint);
+        }
+    }
+
+    private final Map<RequestKey, InFlight<?>> inFlight = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+    private final Executor executor;
+
+    @Autowired
+    public AIRequestRegistry(MeterRegistry meterRegistry,
+                             @Qualifier("aiCancellableExecutor") Executor executor) {
+        this.meterRegistry = meterRegistry;
+        this.executor = executor;
+    }
+
+    /**
+     * call을 가상 스레드에서 실행하고, 같은 key로 진행 중이던 이전 요청은 취소
+     */
+    public <T> CompletableFuture<T> submit(RequestKey key, Supplier<T> call) {
+        InFlight<T> entry = new InFlight<>();
+        InFlight<?> previous = inFlight.put(key, entry);
+        if (previous != null) {
+            String stage = previous.cancel();
+            if (stage != null) {
+                logger.debug("Cancelled superseded AI request {} ({})", key, stage);
+                Counter.builder(CANCELLED_METRIC)
+                        .tag("endpoint", key.endpoint())
+                        .tag("stage", stage)
+                        .register(meterRegistry)
+                        .increment();
+            }
+        }
+
+        entry.future.whenComplete((result, error) -> inFlight.remove(key, entry));
+        try {
+            executor.execute(() -> entry.run(call));
+        } catch (RejectedExecutionException e) {
+            entry.future.completeExceptionally(e);
+        }
+        return entry.future;
+    }
+
+    private static final class InFlight<T> {
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+        private Thread runner;
+        private boolean cancelled;
+        private boolean interrupted;
+
+        private void run(Supplier<T> call) {
+            synchronized (this) {
+                if (cancelled) {
+                    return;
+                }
+                runner = Thread.currentThread();
+            }
+            try {
+                future.complete(call.get());
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            } finally {
+                synchronized (this) {
+                    runner = null;
+                    if (interrupted) {
+                        // 취소로 설정한 interrupt 상태를 스레드에 남기지 않음
+                        Thread.interrupted();
+                    }
+                }
+            }
+        }
+
+        /**
+         * @return 취소한 단계 (queued, running), 이미 끝났으면 null
+         */
+        private synchronized String cancel() {
+            if (cancelled || future.isDone()) {
+                return null;
+            }
+            cancelled = true;
+            future.cancel(false);
+            if (runner == null) {
+                return "queued";
+            }
+            interrupted = true;
+            runner.interrupt();
+            return "running";
+        }
+    }
+}
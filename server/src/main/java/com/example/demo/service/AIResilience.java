@@ -0,0 +1,250 @@
+package com.example.demo.service;
+
+import com.example.demo.exception.AIUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * OpenAI 호출 보호: 작업별 bulkhead + 공유 circuit breaker
+ *
+ * - bulkhead: 작업(operation)별 동시 호출 수 제한 (ai.bulkhead.{operation}.max-concurrent, 기본 ai.bulkhead.max-concurrent).
+ *   자리가 없으면 ai.bulkhead.max-wait만큼만 기다리고 거절
+ * - circuit breaker: 최근 ai.circuit.window-size건 중 실패 또는 느린 호출(ai.circuit.slow-call-threshold 이상) 비율이
+ *   임계값을 넘으면 ai.circuit.open-duration 동안 모든 호출을 바로 거절하고, 이후 몇 건만 시험 호출하여 회복 여부를 판단
+ * - 거절 시 AIUnavailableException을 던지며, AIService는 이를 로컬 fallback으로 처리함
+ * - 메트릭: ai.circuit.state (0=closed, 1=half-open, 2=open), ai.circuit.rejected (reason, operation)
+ */
+@Component
+public class AIResilience {
+
+    private static final Logger logger = LoggerFactory.getLogger(AIResilience.class);
+
+    enum State {
+        CLOSED, HALF_OPEN, OPEN
+    }
+
+    private final MeterRegistry meterRegistry;
+    private final Environment environment;
+    private final Map<String, Semaphore> bulkheads = new ConcurrentHashMap<>();
+    private final int defaultMaxConcurrent;
+    private final Duration bulkheadMaxWait;
+
+    private final int windowSize;
+    private final int minimumCalls;
+    private final int failureRateThreshold;
+    private final int slowCallRateThreshold;
+    private final long slowCallThresholdMillis;
+    private final long openDurationMillis;
+    private final int halfOpenCalls;
+
+    // circuit breaker 상태 (this로 동기화)
+    private State state = State.CLOSED;
+    private long openedAt;
+    private final byte[] window;
+    private int windowIndex;
+    private int windowCount;
+    private int failureCount;
+    private int slowCount;
+    private int halfOpenInFlight;
+    private int halfOpenSuccesses;
+
+    private static final byte OUTCOME_SUCCESS = 0;
+    private static final byte OUTCOME_FAILURE = 1;
+    private static final byte OUTCOME_SLOW = 2;
+
+    @Autowired
+    public AIResilience(MeterRegistry meterRegistry,
+                        Environment environment,
+                        @Value("${ai.bulkhead.max-concurrent:20}") int defaultMaxConcurrent,
+                        @Value("${ai.bulkhead.max-wait:100ms}") Duration bulkheadMaxWait,
+                        @Value("${ai.circuit.window-size:20}") int windowSize,
+                        @Value("${ai.circuit.minimum-calls:10}") int minimumCalls,
+                        @Value("${ai.circuit.failure-rate-threshold:50}") int failureRateThreshold,
+                        @Value("${ai.circuit.slow-call-rate-threshold:50}") int slowCallRateThreshold,
+                        @Value("${ai.circuit.slow-call-threshold:10s}") Duration slowCallThreshold,
+                        @Value("${ai.circuit.open-duration:30s}") Duration openDuration,
+                        @Value("${ai.circuit.half-open-calls:3}") int halfOpenCalls) {
+        this.meterRegistry = meterRegistry;
+        this.environment = environment;
+        this.defaultMaxConcurrent = defaultMaxConcurrent;
+        this.bulkheadMaxWait = bulkheadMaxWait;
+        this.windowSize = windowSize;
+        this.minimumCalls = minimumCalls;
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallRateThreshold = slowCallRateThreshold;
+        this.slowCallThresholdMillis = slowCallThreshold.toMillis();
+        this.openDurationMillis = openDuration.toMillis();
+        this.halfOpenCalls = halfOpenCalls;
+        this.window = new byte[windowSize];
+
+        Gauge.builder("ai.circuit.state", this, resilience -> resilience.currentState().ordinal())
+                .register(meterRegistry);
+    }
+
+    /**
+     * circuit breaker와 bulkhead를 통과한 경우에만 call을 실행
+     *
+     * @throws AIUnavailableException circuit이 열려 있거나 bulkhead에 자리가 없을 때
+     */
+    public <T> T execute(String operation, Supplier<T> call) {
+        if (!tryAcquirePermission()) {
+            reject(operation, "circuit-open");
+        }
+
+        Semaphore bulkhead = bulkheads.computeIfAbsent(operation, key -> new Semaphore(
+                environment.getProperty("ai.bulkhead." + key + ".max-concurrent", Integer.class, defaultMaxConcurrent)));
+        boolean acquired;
+        try {
+            acquired = bulkhead.tryAcquire(bulkheadMaxWait.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            releasePermission();
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while waiting for AI bulkhead");
+        }
+        if (!acquired) {
+            releasePermission();
+            reject(operation, "bulkhead-full");
+        }
+
+        long start = System.currentTimeMillis();
+        try {
+            T result = call.get();
+            onResult(false, System.currentTimeMillis() - start);
+            return result;
+        } catch (RuntimeException | Error e) {
+            if (isCancellation(e)) {
+                // 호출한 쪽에서 취소한 경우는 OpenAI 상태와 무관하므로 집계하지 않음
+                releasePermission();
+            } else {
+                onResult(true, System.currentTimeMillis() - start);
+            }
+            throw e;
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    synchronized State currentState() {
+        if (state == State.OPEN && System.currentTimeMillis() - openedAt >= openDurationMillis) {
+            return State.HALF_OPEN;
+        }
+        return state;
+    }
+
+    private synchronized boolean tryAcquirePermission() {
+        if (state == State.OPEN) {
+            if (System.currentTimeMillis() - openedAt < openDurationMillis) {
+                return false;
+            }
+            transitionTo(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN) {
+            if (halfOpenInFlight >= halfOpenCalls) {
+                return false;
+            }
+            halfOpenInFlight++;
+        }
+        return true;
+    }
+
+    // 결과를 집계하지 않고 시험 호출 자리만 반납
+    private synchronized void releasePermission() {
+        if (state == State.HALF_OPEN && halfOpenInFlight > 0) {
+            halfOpenInFlight--;
+        }
+    }
+
+    private synchronized void onResult(boolean failed, long durationMillis) {
+        byte outcome = failed ? OUTCOME_FAILURE
+                : durationMillis >= slowCallThresholdMillis ? OUTCOME_SLOW : OUTCOME_SUCCESS;
+
+        if (state == State.HALF_OPEN) {
+            halfOpenInFlight = Math.max(0, halfOpenInFlight - 1);
+            if (outcome != OUTCOME_SUCCESS) {
+                transitionTo(State.OPEN);
+            } else if (++halfOpenSuccesses >= halfOpenCalls) {
+                transitionTo(State.CLOSED);
+            }
+            return;
+        }
+        if (state == State.OPEN) {
+            // 열리기 전에 시작된 호출의 결과
+            return;
+        }
+
+        if (windowCount == windowSize) {
+            byte evicted = window[windowIndex];
+            if (evicted == OUTCOME_FAILURE) failureCount--;
+            if (evicted == OUTCOME_SLOW) slowCount--;
+        } else {
+            windowCount++;
+        }
+        window[windowIndex] = outcome;
+        windowIndex = (windowIndex + 1) % windowSize;
+        if (outcome == OUTCOME_FAILURE) failureCount++;
+        if (outcome == OUTCOME_SLOW) slowCount++;
+
+        if (windowCount >= minimumCalls
+                && (failureCount * 100 >= failureRateThreshold * windowCount
+                    || slowCount * 100 >= slowCallRateThreshold * windowCount)) {
+            logger.warn("Opening AI circuit breaker: {} failures and {} slow calls in last {} calls",
+                    failureCount, slowCount, windowCount);
+            transitionTo(State.OPEN);
+        }
+    }
+
+    private void transitionTo(State next) {
+        if (state == next) {
+            return;
+        }
+        logger.info("AI circuit breaker {} -> {}", state, next);
+        state = next;
+        if (next == State.OPEN) {
+            openedAt = System.currentTimeMillis();
+        }
+        if (next == State.HALF_OPEN) {
+            halfOpenInFlight = 0;
+            halfOpenSuccesses = 0;
+        }
+        if (next == State.CLOSED) {
+            windowIndex = 0;
+            windowCount = 0;
+            failureCount = 0;
+            slowCount = 0;
+        }
+    }
+
+    private void reject(String operation, String reason) {
+        Counter.builder("ai.circuit.rejected")
+                .tag("operation", operation)
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment();
+        throw new AIUnavailableException("AI call rejected (" + reason + "): " + operation);
+    }
+
+    private boolean isCancellation(Throwable error) {
+        for (Throwable t = error; t != null; t = t.getCause()) {
+            if (t instanceof InterruptedException || t instanceof InterruptedIOException || t instanceof CancellationException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.demo.service;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * JSON mode 응답을 한 번에 record로 파싱 (AIService)
+ *
+ * 모델 출력 예시는 src/test/resources/ai-responses/corpus.json, 성능은 src/jmh의 AIResponseParserBenchmark로 확인
+ */
+class AIResponseParser {
+
+    private static final Logger logger = LoggerFactory.getLogger(AIResponseParser.class);
+
+    private final ObjectMapper objectMapper;
+
+    AIResponseParser(ObjectMapper objectMapper) {
+        // 모델이 정의하지 않은 필드를 추가해도 파싱은 계속되도록 함
+        this.objectMapper = objectMapper.copy().disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    }
+
+    /**
+     * @return 파싱 결과, 응답이 없거나 JSON 객체가 아니면 null
+     */
+    <T> T parse(String aiResponse, Class<T> type) {
+        if (aiResponse == null) {
+            return null;
+        }
+        // 앞에 코드 블록 표시 등이 붙은 경우를 위해 첫 '{'부터 파싱 (뒤에 남는 내용은 무시됨)
+        int start = aiResponse.indexOf('{');
+        if (start == -1) {
+            logger.debug("AI response is not a JSON object: {}", aiResponse);
+            return null;
+        }
+        try {
+            return objectMapper.readerFor(type).readValue(start == 0 ? aiResponse : aiResponse.substring(start));
+        } catch (Exception e) {
+            logger.debug("Could not parse AI response as {}: {}", type.getSimpleName(), e.getMessage());
+            return null;
+        }
+    }
+}
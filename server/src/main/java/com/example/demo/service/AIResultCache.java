@@ -0,0 +1,187 @@
+package com.example.demo.service;
+
+import com.example.demo.cache.BoundedTtlCache;
+import com.example.demo.repository.AIResultCacheRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * AI 호출 결과(모델 응답 원문) exact-match 캐시
+ *
+ * - 1차: 프로세스 내 LRU + TTL (ai.cache.max-size, ai.cache.ttl)
+ * - 2차: hackerton.ai_result_cache 테이블 (ai.cache.persistent.enabled=true 일 때만, 재시작 후에도 유지)
+ * - 키에 모델과 프롬프트 버전이 포함되므로 프롬프트 템플릿을 바꾸면 AIService.PROMPT_VERSION만 올리면 됨.
+ *   이전 버전 행은 주기적인 정리 작업에서 삭제됨
+ * - 실패한 호출(예외)은 캐시하지 않음
+ * - 캐시에 없는 같은 키의 동시 호출은 AIRequestCoalescer로 하나로 합침
+ */
+@Service
+public class AIResultCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(AIResultCache.class);
+    private static final String METRIC_NAME = "ai.cache.requests";
+
+    public enum Kind {
+        TRANSFORM, EMOTION_GUARD, GUARD_AND_TRANSFORM
+    }
+
+    private final BoundedTtlCache<String, String> memoryCache;
+    private final AIResultCacheRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final AIRequestCoalescer aiRequestCoalescer;
+    private final boolean enabled;
+    private final boolean persistentEnabled;
+    private final Duration ttl;
+
+    @Autowired
+    public AIResultCache(AIResultCacheRepository repository,
+                         PlatformTransactionManager transactionManager,
+                         MeterRegistry meterRegistry,
+                         AIRequestCoalescer aiRequestCoalescer,
+                         @Value("${ai.cache.enabled:true}") boolean enabled,
+                         @Value("${ai.cache.max-size:10000}") int maxSize,
+                         @Value("${ai.cache.ttl:7d}") Duration ttl,
+                         @Value("${ai.cache.persistent.enabled:false}") boolean persistentEnabled) {
+        this.memoryCache = new BoundedTtlCache<>(maxSize, ttl);
+        this.repository = repository;
+        // 호출하는 쪽 트랜잭션과 분리: 캐시 테이블 오류가 메시지 전송 트랜잭션을 망가뜨리지 않도록 함
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.meterRegistry = meterRegistry;
+        this.aiRequestCoalescer = aiRequestCoalescer;
+        this.enabled = enabled;
+        this.persistentEnabled = persistentEnabled;
+        this.ttl = ttl;
+
+        logger.info("AI result cache initialized (enabled: {}, maxSize: {}, ttl: {}, persistent: {})",
+                enabled, maxSize, ttl, persistentEnabled);
+    }
+
+    /**
+     * 캐시된 결과가 있으면 반환하고, 없으면 loader로 호출한 결과를 저장 후 반환
+     */
+    public String getOrLoad(Kind kind, String text, String persona, String relationship,
+                            String model, String promptVersion, Supplier<String> loader) {
+        String key = cacheKey(kind, text, persona, relationship, model, promptVersion);
+        if (!enabled) {
+            return aiRequestCoalescer.execute(key, loader);
+        }
+
+        String cached = memoryCache.get(key);
+        if (cached != null) {
+            count(kind, "memory");
+            return cached;
+        }
+
+        // 같은 키로 동시에 들어온 호출은 하나만 조회/호출하고 나머지는 그 결과를 기다림
+        return aiRequestCoalescer.execute(key, () -> loadMiss(key, kind, model, promptVersion, loader));
+    }
+
+    private String loadMiss(String key, Kind kind, String model, String promptVersion, Supplier<String> loader) {
+        if (persistentEnabled) {
+            Optional<String> stored = findStored(key);
+            if (stored.isPresent()) {
+                count(kind, "db");
+                memoryCache.put(key, stored.get());
+                return stored.get();
+            }
+        }
+
+        count(kind, "miss");
+        String result = loader.get();
+        if (result != null) {
+            memoryCache.put(key, result);
+            if (persistentEnabled) {
+                store(key, kind, model, promptVersion, result);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 만료되었거나 이전 프롬프트 버전의 영속 캐시 행 정리
+     */
+    @Scheduled(fixedDelayString = "${ai.cache.purge-interval:1h}", initialDelayString = "${ai.cache.purge-initial-delay:1m}")
+    public void purgeStale() {
+        if (!enabled || !persistentEnabled) {
+            return;
+        }
+        try {
+            Integer deleted = transactionTemplate.execute(status -> repository.deleteStale(AIService.PROMPT_VERSION));
+            logger.info("Purged {} stale AI result cache entries", deleted);
+        } catch (Exception e) {
+            logger.warn("Failed to purge AI result cache: {}", e.getMessage());
+        }
+    }
+
+    private Optional<String> findStored(String key) {
+        try {
+            return transactionTemplate.execute(status -> repository.findResult(key));
+        } catch (Exception e) {
+            logger.warn("Failed to read AI result cache entry: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private void store(String key, Kind kind, String model, String promptVersion, String result) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> repository.upsert(
+                    key, kind.name(), model, promptVersion, result, LocalDateTime.now().plus(ttl)));
+        } catch (Exception e) {
+            logger.warn("Failed to store AI result cache entry: {}", e.getMessage());
+        }
+    }
+
+    private void count(Kind kind, String result) {
+        Counter.builder(METRIC_NAME)
+                .tag("kind", kind.name().toLowerCase())
+                .tag("result", result)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    static String cacheKey(Kind kind, String text, String persona, String relationship,
+                           String model, String promptVersion) {
+        String material = String.join("\u0000",
+                kind.name(),
+                normalize(text),
+                String.valueOf(persona),
+                String.valueOf(relationship),
+                model,
+                promptVersion);
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(material.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    // 유니코드 정규화(NFC) + 앞뒤 공백 제거 + 연속 공백 축약
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        return Normalizer.normalize(text, Normalizer.Form.NFC).strip().replaceAll("\\s+", " ");
+    }
+}
@@ -2,15 +2,15 @@ package com.example.demo.service;
 
 import com.example.demo.dto.response.*;
 import com.example.demo.entity.ChatRoom;
-import com.example.demo.entity.Message;
 import com.example.demo.entity.Profile;
 import com.example.demo.entity.User;
+import com.example.demo.exception.AIUnavailableException;
 import com.example.demo.repository.ChatRoomRepository;
 import com.example.demo.repository.ProfileRepository;
-import com.openai.client.OpenAIClient;
-import com.openai.client.okhttp.OpenAIOkHttpClient;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.openai.models.ChatModel;
-import com.openai.models.chat.completions.ChatCompletion;
+import com.openai.models.ResponseFormatJsonObject;
 import com.openai.models.chat.completions.ChatCompletionCreateParams;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -21,43 +21,71 @@ import org.springframework.stereotype.Service;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Service
 public class AIService {
 
     private static final Logger logger = LoggerFactory.getLogger(AIService.class);
+    // 프롬프트 템플릿을 바꾸면 올릴 것 (AIResultCache 키에 포함되어 이전 결과가 무효화됨)
+    public static final String PROMPT_VERSION = "2";
+    // JSON으로 응답받는 호출은 JSON mode로 요청하여 항상 하나의 JSON 객체를 받음
+    private static final ResponseFormatJsonObject JSON_OBJECT = ResponseFormatJsonObject.builder().build();
 
-    private final OpenAIClient client;
+    private final AICompletionClient aiCompletionClient;
     private final String model;
     private final ChatRoomRepository chatRoomRepository;
     private final ProfileRepository profileRepository;
     private final UserService userService;
+    private final AIResultCache aiResultCache;
+    private final AIResponseParser responseParser;
+    private final ConversationPromptBuilder conversationPromptBuilder;
 
     @Autowired
-    public AIService(@Value("${openai.api.key}") String apiKey,
+    public AIService(AICompletionClient aiCompletionClient,
                      @Value("${openai.model}") String model,
                      ChatRoomRepository chatRoomRepository,
                      ProfileRepository profileRepository,
-                     UserService userService) {
+                     UserService userService,
+                     AIResultCache aiResultCache,
+                     ObjectMapper objectMapper,
+                     ConversationPromptBuilder conversationPromptBuilder) {
         this.model = model;
-        this.client = OpenAIOkHttpClient.builder()
-                .apiKey(apiKey)
-                .build();
+        this.aiCompletionClient = aiCompletionClient;
         this.chatRoomRepository = chatRoomRepository;
         this.profileRepository = profileRepository;
         this.userService = userService;
+        this.aiResultCache = aiResultCache;
+        this.responseParser = new AIResponseParser(objectMapper);
+        this.conversationPromptBuilder = conversationPromptBuilder;
 
         logger.info("AI Service initialized with model: {}", model);
     }
 
     public TransformTextResponse transformText(String text, Double formalityLevel, String relationship, String personaId) {
+        return transformText(text, formalityLevel, relationship, personaId, null);
+    }
+
+    /**
+     * transformText의 스트리밍 버전: 생성되는 텍스트 조각을 도착하는 대로 onDelta로 전달하고, 끝나면 최종 결과를 반환
+     * 캐시된 결과는 한 번에 전달됨. 반환값의 transformedText가 최종 텍스트임 (호출 실패 시 원문)
+     */
+    public TransformTextResponse transformTextStreaming(String text, Double formalityLevel, String relationship, String personaId,
+                                                        Consumer<String> onDelta) {
+        return transformText(text, formalityLevel, relationship, personaId, onDelta);
+    }
+
+    private TransformTextResponse transformText(String text, Double formalityLevel, String relationship, String personaId,
+                                                Consumer<String> onDelta) {
         TransformTextResponse response = new TransformTextResponse();
         response.setOriginalText(text);
         response.setFormalityLevel(formalityLevel);
 
         // Determine persona based on formality level
-        String appliedPersona = personaId != null ? personaId : determinePersona(formalityLevel);
+        String appliedPersona = resolveTransformPersona(personaId, formalityLevel);
         response.setAppliedPersona(appliedPersona);
 
         if (text == null || text.trim().isEmpty()) {
@@ -94,12 +122,20 @@ public class AIService {
                     .maxCompletionTokens(500L)
                     .build();
 
-            ChatCompletion chatCompletion = client.chat().completions().create(params);
-
-            String transformedText = chatCompletion.choices().stream()
-                    .findFirst()
-                    .flatMap(choice -> choice.message().content())
-                    .orElse(text);
+            AtomicBoolean streamed = new AtomicBoolean();
+            String completion = aiResultCache.getOrLoad(AIResultCache.Kind.TRANSFORM,
+                    text, appliedPersona, relationship, model, PROMPT_VERSION,
+                    () -> {
+                        if (onDelta == null) {
+                            return aiCompletionClient.complete("transform", params);
+                        }
+                        streamed.set(true);
+                        return aiCompletionClient.completeStreaming("transform", params, onDelta);
+                    });
+            String transformedText = completion != null ? completion : text;
+            if (onDelta != null && !streamed.get()) {
+                onDelta.accept(transformedText);
+            }
 
             response.setTransformedText(transformedText);
 
@@ -119,7 +155,7 @@ public class AIService {
             return response;
 
         } catch (Exception e) {
-            logger.error("Failed to transform text", e);
+            logFailure("Failed to transform text", e);
             response.setTransformedText(text);
             response.setChanges(new ArrayList<>());
             response.setShouldSuggest(false);
@@ -134,7 +170,7 @@ public class AIService {
 
         try {
             // persona가 없으면 기본값 사용
-            String appliedPersona = personaId != null ? personaId : "casual-polite";
+            String appliedPersona = resolveGuardPersona(personaId);
             String personaGuide = getPersonaGuide(appliedPersona);
 
             logger.debug("Checking emotion guard for text with persona: {}", appliedPersona);
@@ -160,32 +196,104 @@ public class AIService {
                     .addUserMessage(userPrompt)
                     .temperature(0.5)
                     .maxCompletionTokens(300L)
+                    .responseFormat(JSON_OBJECT)
                     .build();
 
-            ChatCompletion chatCompletion = client.chat().completions().create(params);
-
-            String aiResponse = chatCompletion.choices().stream()
-                    .findFirst()
-                    .flatMap(choice -> choice.message().content())
-                    .orElse("{}");
-
-            boolean isAggressive = aiResponse.contains("\"isAggressive\": true");
-            String aggressionType = extractField(aiResponse, "aggressionType");
-            double aggressionScore = extractScore(aiResponse);
-            String suggestion = extractField(aiResponse, "suggestion");
+            String completion = aiResultCache.getOrLoad(AIResultCache.Kind.EMOTION_GUARD,
+                    text, appliedPersona, null, model, PROMPT_VERSION,
+                    () -> aiCompletionClient.complete("emotion-guard", params));
+            EmotionGuardResult result = responseParser.parse(completion, EmotionGuardResult.class);
+            if (result == null) {
+                return new EmotionGuardDetailResponse(false, null, 0.0, null, null);
+            }
 
+            boolean isAggressive = Boolean.TRUE.equals(result.isAggressive());
             String warningMessage = isAggressive ? "조금 더 부드럽게 말해볼까요?" : null;
 
-            return new EmotionGuardDetailResponse(isAggressive, aggressionType, aggressionScore, suggestion, warningMessage);
+            return new EmotionGuardDetailResponse(isAggressive, result.aggressionType(), scoreOrDefault(result.aggressionScore(), 0.0),
+                    result.suggestion(), warningMessage);
 
         } catch (Exception e) {
-            logger.error("Failed to check emotion guard", e);
+            logFailure("Failed to check emotion guard", e);
             return new EmotionGuardDetailResponse(false, null, 0.0, null, null);
         }
     }
 
+    /**
+     * 감정 검사와 말투 변환을 하나의 프롬프트로 처리 (sendMessage의 combined 파이프라인)
+     *
+     * @return 결과, 호출 실패 또는 응답을 해석할 수 없으면 null (호출하는 쪽에서 기존 2단계 경로로 대체)
+     */
+    public GuardedTransformResponse guardAndTransform(String text, Double formalityLevel, String relationship, String personaId) {
+        if (text == null || text.trim().isEmpty()) {
+            return new GuardedTransformResponse(false, null, 0.0, null, text);
+        }
+
+        try {
+            String appliedPersona = resolveTransformPersona(personaId, formalityLevel);
+            String personaGuide = getPersonaGuide(appliedPersona);
+
+            logger.debug("Guarding and transforming text with persona: {}, relationship: {}", appliedPersona, relationship);
+
+            String systemPrompt = "당신은 텍스트의 감정을 분석하고, 공격적이거나 비꼬는 표현을 부드럽게 고친 뒤 " +
+                    "지정된 말투로 변환하는 전문가입니다.";
+            String userPrompt = String.format(
+                "다음 텍스트를 분석하고 '%s' 말투로 변환하여 JSON 형식으로만 응답해주세요.\n\n" +
+                "**말투 가이드:**\n%s\n\n" +
+                "{\n" +
+                "  \"isAggressive\": true/false,\n" +
+                "  \"aggressionType\": \"sarcasm|passive_aggressive|direct_attack|dismissive\",\n" +
+                "  \"aggressionScore\": 0.0-1.0,\n" +
+                "  \"suggestion\": \"공격적인 경우에만, 위 말투에 맞는 더 부드러운 표현\",\n" +
+                "  \"transformedText\": \"최종 텍스트 (공격적이면 suggestion을, 아니면 원본을 위 말투로 변환)\"\n" +
+                "}\n\n" +
+                "**변환 규칙:**\n" +
+                "- 원본 텍스트의 의미는 그대로 유지\n" +
+                "- 말투와 문체만 변경\n\n" +
+                "**원본 텍스트:**\n%s",
+                appliedPersona, personaGuide, text
+            );
+
+            ChatCompletionCreateParams params = ChatCompletionCreateParams.builder()
+                    .model(ChatModel.of(model))
+                    .addSystemMessage(systemPrompt)
+                    .addUserMessage(userPrompt)
+                    .temperature(0.5)
+                    .maxCompletionTokens(600L)
+                    .responseFormat(JSON_OBJECT)
+                    .build();
+
+            String aiResponse = aiResultCache.getOrLoad(AIResultCache.Kind.GUARD_AND_TRANSFORM,
+                    text, appliedPersona, relationship, model, PROMPT_VERSION,
+                    () -> aiCompletionClient.complete("guard-and-transform", params));
+
+            GuardedTransformResult result = responseParser.parse(aiResponse, GuardedTransformResult.class);
+            if (result == null || result.transformedText() == null || result.transformedText().isBlank()) {
+                logger.warn("Combined guard/transform response could not be parsed");
+                return null;
+            }
+
+            boolean isAggressive = Boolean.TRUE.equals(result.isAggressive());
+            return new GuardedTransformResponse(
+                    isAggressive,
+                    isAggressive ? result.aggressionType() : null,
+                    scoreOrDefault(result.aggressionScore(), 0.0),
+                    isAggressive ? result.suggestion() : null,
+                    result.transformedText());
+
+        } catch (Exception e) {
+            logFailure("Failed to guard and transform text", e);
+            return null;
+        }
+    }
+
+    /**
+     * @param conversationHistory 최신순 최근 메시지 (MessageRepository.findRecent를 요청 스레드에서 변환한 값)
+     * @param conversationSummary 채팅방 요약, 없으면 null
+     */
     public ReactionSuggestResponse suggestReactions(String messageContent, String relationship, Double formalityLevel,
-                                                     String personaId, List<Message> conversationHistory, User currentUser) {
+                                                     String personaId, List<ConversationPromptBuilder.HistoryMessage> conversationHistory,
+                                                     ChatRoomSummaryService.Summary conversationSummary, User currentUser) {
         ReactionSuggestResponse response = new ReactionSuggestResponse();
 
         if (messageContent == null || messageContent.trim().isEmpty()) {
@@ -205,22 +313,9 @@ public class AIService {
             logger.debug("Suggesting reactions for message with persona: {}, history size: {}",
                         persona, conversationHistory != null ? conversationHistory.size() : 0);
 
-            // 대화 히스토리 구성
-            StringBuilder historyContext = new StringBuilder();
-            if (conversationHistory != null && !conversationHistory.isEmpty()) {
-                historyContext.append("**대화 맥락 (최근 대화):**\n");
-                int messageCount = 0;
-                for (Message msg : conversationHistory) {
-                    String senderLabel = currentUser != null && msg.getSender().getId().equals(currentUser.getId()) ? "나" : "상대방";
-                    historyContext.append(String.format("%s: %s\n", senderLabel, msg.getContent()));
-                    messageCount++;
-                    if (messageCount >= 20) { // 프롬프트에는 최근 20개만 포함
-                        historyContext.append("... (이전 대화 생략)\n");
-                        break;
-                    }
-                }
-                historyContext.append("\n");
-            }
+            // 대화 히스토리 구성 (요약 + 요약 이후 최신 메시지부터 토큰 예산만큼)
+            String historyContext = conversationPromptBuilder.buildHistory(conversationSummary, conversationHistory,
+                    currentUser != null ? currentUser.getId() : null);
 
             String systemPrompt = "당신은 메시지 감정을 분석하고 적절한 반응을 추천하는 전문가입니다. 대화의 맥락을 고려하여 자연스럽고 적절한 반응을 제안합니다.";
             String userPrompt = String.format(
@@ -245,7 +340,7 @@ public class AIService {
                 "- suggestedTexts와 quickResponses의 text는 반드시 위의 말투 가이드를 정확히 따라야 합니다!\n" +
                 "- 대화 맥락을 고려하여 자연스럽고 상황에 맞는 응답을 생성하세요.\n\n" +
                 "**현재 메시지:** %s",
-                historyContext.toString(), persona, personaGuide, messageContent
+                historyContext, persona, personaGuide, messageContent
             );
 
             ChatCompletionCreateParams params = ChatCompletionCreateParams.builder()
@@ -254,32 +349,41 @@ public class AIService {
                     .addUserMessage(userPrompt)
                     .temperature(0.7)
                     .maxCompletionTokens(500L)
+                    .responseFormat(JSON_OBJECT)
                     .build();
 
-            ChatCompletion chatCompletion = client.chat().completions().create(params);
-
-            String aiResponse = chatCompletion.choices().stream()
-                    .findFirst()
-                    .flatMap(choice -> choice.message().content())
-                    .orElse("{}");
+            String completion = aiCompletionClient.complete("reaction-suggest", params);
+            ReactionResult result = responseParser.parse(completion, ReactionResult.class);
+            if (result == null) {
+                throw new IllegalStateException("Reaction suggestion response could not be parsed");
+            }
 
-            // Parse AI response
-            response.setEmotion(extractField(aiResponse, "emotion"));
-            response.setEmotionScore(extractEmotionScore(aiResponse));
-            response.setSuggestedEmojis(extractEmojis(aiResponse));
-            response.setSuggestedTexts(extractSuggestedTexts(aiResponse));
-            response.setQuickResponses(extractQuickResponses(aiResponse));
+            List<String> emojis = result.suggestedEmojis() == null ? List.of() : result.suggestedEmojis().stream()
+                    .filter(emoji -> emoji != null && !emoji.isBlank())
+                    .collect(Collectors.toList());
+            response.setEmotion(result.emotion());
+            response.setEmotionScore(scoreOrDefault(result.emotionScore(), 0.5));
+            response.setSuggestedEmojis(emojis.isEmpty() ? Arrays.asList("👍", "❤️", "😊", "🙌", "✅") : emojis);
+            response.setSuggestedTexts(result.suggestedTexts() == null ? new ArrayList<>() : result.suggestedTexts().stream()
+                    .filter(item -> item != null && item.getText() != null && item.getType() != null)
+                    .collect(Collectors.toList()));
+            response.setQuickResponses(result.quickResponses() == null ? new ArrayList<>() : result.quickResponses().stream()
+                    .filter(item -> item != null && item.getText() != null && item.getIcon() != null)
+                    .collect(Collectors.toList()));
 
             logger.info("Generated reaction suggestions via OpenAI for emotion: {}", response.getEmotion());
             return response;
 
         } catch (Exception e) {
-            logger.error("Failed to suggest reactions via OpenAI", e);
-            response.setEmotion("neutral");
+            logFailure("Failed to suggest reactions via OpenAI", e);
+            // 키워드 기반 로컬 추천으로 대체
+            String emotion = analyzeEmotion(messageContent);
+            int formality = formalityLevel != null ? formalityLevel.intValue() : 50;
+            response.setEmotion(emotion);
             response.setEmotionScore(0.5);
-            response.setSuggestedEmojis(Arrays.asList("👍", "❤️", "😊", "🙌", "✅"));
-            response.setSuggestedTexts(new ArrayList<>());
-            response.setQuickResponses(new ArrayList<>());
+            response.setSuggestedEmojis(suggestEmojis(messageContent, emotion));
+            response.setSuggestedTexts(generateSuggestedTexts(emotion, formality));
+            response.setQuickResponses(generateQuickResponses(emotion));
             return response;
         }
     }
@@ -311,18 +415,20 @@ public class AIService {
                 if (!chatRooms.isEmpty()) {
                     String systemPrompt = "당신은 사용자의 프로필과 채팅방을 분석하여 가장 적합한 채팅방을 추천하는 전문가입니다.";
                     String userPrompt = String.format(
-                        "다음 프로필에 가장 적합한 채팅방들을 분석하여 JSON 배열로 응답해주세요:\n\n" +
+                        "다음 프로필에 가장 적합한 채팅방들을 분석하여 JSON 형식으로 응답해주세요:\n\n" +
                         "프로필: %s (페르소나: %s)\n\n" +
                         "채팅방 목록:\n%s\n" +
                         "JSON 형식:\n" +
-                        "[\n" +
-                        "  {\n" +
-                        "    \"chatRoomId\": 1,\n" +
-                        "    \"matchScore\": 85,\n" +
-                        "    \"matchReason\": \"이유 설명\"\n" +
-                        "  },\n" +
-                        "  ...\n" +
-                        "]\n\n" +
+                        "{\n" +
+                        "  \"recommendations\": [\n" +
+                        "    {\n" +
+                        "      \"chatRoomId\": 1,\n" +
+                        "      \"matchScore\": 85,\n" +
+                        "      \"matchReason\": \"이유 설명\"\n" +
+                        "    },\n" +
+                        "    ...\n" +
+                        "  ]\n" +
+                        "}\n\n" +
                         "matchScore는 0-100 사이 값으로, 프로필의 페르소나와 채팅방의 격식도/관계가 얼마나 잘 맞는지 평가해주세요.",
                         profileName, personaId != null ? personaId : "미설정", chatRoomInfo.toString()
                     );
@@ -333,17 +439,16 @@ public class AIService {
                             .addUserMessage(userPrompt)
                             .temperature(0.5)
                             .maxCompletionTokens(700L)
+                            .responseFormat(JSON_OBJECT)
                             .build();
 
-                    ChatCompletion chatCompletion = client.chat().completions().create(params);
-
-                    String aiResponse = chatCompletion.choices().stream()
-                            .findFirst()
-                            .flatMap(choice -> choice.message().content())
-                            .orElse("[]");
+                    String completion = aiCompletionClient.complete("friend-matching", params);
+                    MatchResult result = responseParser.parse(completion, MatchResult.class);
+                    if (result == null) {
+                        throw new IllegalStateException("Friend matching response could not be parsed");
+                    }
 
-                    // Parse AI recommendations
-                    recommendations = parseMatchRecommendations(aiResponse, chatRooms);
+                    recommendations = toRecommendations(result, chatRooms);
 
                     logger.info("Generated {} recommendations via OpenAI", recommendations.size());
                 }
@@ -355,7 +460,7 @@ public class AIService {
             return new FriendMatchingDetailResponse(recommendations);
 
         } catch (Exception e) {
-            logger.error("Failed to find friend matches via OpenAI", e);
+            logFailure("Failed to find friend matches via OpenAI", e);
             // Fallback to simple matching
             return fallbackFriendMatching(profileName, personaId, chatRoomIds);
         }
@@ -384,80 +489,42 @@ public class AIService {
         return new FriendMatchingDetailResponse(recommendations);
     }
 
-    private List<FriendMatchingDetailResponse.ChatRoomRecommendation> parseMatchRecommendations(String aiResponse, List<ChatRoom> chatRooms) {
+    private List<FriendMatchingDetailResponse.ChatRoomRecommendation> toRecommendations(MatchResult result, List<ChatRoom> chatRooms) {
         List<FriendMatchingDetailResponse.ChatRoomRecommendation> recommendations = new ArrayList<>();
+        if (result.recommendations() == null) {
+            return recommendations;
+        }
 
-        try {
-            // Find all JSON objects in the array
-            String[] objects = aiResponse.split("\\{");
-            for (String obj : objects) {
-                if (obj.contains("\"chatRoomId\"") && obj.contains("\"matchScore\"")) {
-                    Long chatRoomId = extractLongValue(obj, "chatRoomId");
-                    Integer matchScore = extractIntValue(obj, "matchScore");
-                    String matchReason = extractJsonValue(obj, "matchReason");
-
-                    if (chatRoomId != null && matchScore != null) {
-                        // Find chat room name
-                        String chatRoomName = chatRooms.stream()
-                                .filter(cr -> cr.getId().equals(chatRoomId))
-                                .map(ChatRoom::getName)
-                                .findFirst()
-                                .orElse("Unknown");
-
-                        recommendations.add(new FriendMatchingDetailResponse.ChatRoomRecommendation(
-                                chatRoomId,
-                                chatRoomName,
-                                matchScore,
-                                matchReason != null ? matchReason : "프로필과 잘 맞습니다"
-                        ));
-                    }
-                }
+        Map<Long, String> chatRoomNames = chatRooms.stream()
+                .collect(Collectors.toMap(ChatRoom::getId, ChatRoom::getName, (first, second) -> first));
+        for (MatchRecommendation recommendation : result.recommendations()) {
+            // 요청하지 않은 채팅방 ID는 무시
+            if (recommendation == null || recommendation.matchScore() == null
+                    || !chatRoomNames.containsKey(recommendation.chatRoomId())) {
+                continue;
             }
-        } catch (Exception e) {
-            logger.debug("Could not parse match recommendations from AI response");
+            recommendations.add(new FriendMatchingDetailResponse.ChatRoomRecommendation(
+                    recommendation.chatRoomId(),
+                    chatRoomNames.get(recommendation.chatRoomId()),
+                    recommendation.matchScore(),
+                    recommendation.matchReason() != null ? recommendation.matchReason() : "프로필과 잘 맞습니다"
+            ));
         }
-
         return recommendations;
     }
 
-    private Long extractLongValue(String json, String key) {
-        try {
-            String searchKey = "\"" + key + "\"";
-            int keyIndex = json.indexOf(searchKey);
-            if (keyIndex != -1) {
-                int colonIndex = json.indexOf(":", keyIndex);
-                int valueStart = colonIndex + 1;
-                int valueEnd = json.indexOf(",", valueStart);
-                if (valueEnd == -1) valueEnd = json.indexOf("}", valueStart);
-                if (valueStart > colonIndex && valueEnd > valueStart) {
-                    String valueStr = json.substring(valueStart, valueEnd).trim();
-                    return Long.parseLong(valueStr);
-                }
-            }
-        } catch (Exception e) {
-            logger.debug("Could not extract long {} from JSON", key);
-        }
-        return null;
+    /**
+     * transformText가 실제로 적용할 persona (personaId가 없으면 격식 수준으로 결정)
+     */
+    public String resolveTransformPersona(String personaId, Double formalityLevel) {
+        return personaId != null ? personaId : determinePersona(formalityLevel);
     }
 
-    private Integer extractIntValue(String json, String key) {
-        try {
-            String searchKey = "\"" + key + "\"";
-            int keyIndex = json.indexOf(searchKey);
-            if (keyIndex != -1) {
-                int colonIndex = json.indexOf(":", keyIndex);
-                int valueStart = colonIndex + 1;
-                int valueEnd = json.indexOf(",", valueStart);
-                if (valueEnd == -1) valueEnd = json.indexOf("}", valueStart);
-                if (valueStart > colonIndex && valueEnd > valueStart) {
-                    String valueStr = json.substring(valueStart, valueEnd).trim();
-                    return Integer.parseInt(valueStr);
-                }
-            }
-        } catch (Exception e) {
-            logger.debug("Could not extract int {} from JSON", key);
-        }
-        return null;
+    /**
+     * checkEmotionGuard가 실제로 적용할 persona
+     */
+    public String resolveGuardPersona(String personaId) {
+        return personaId != null ? personaId : "casual-polite";
     }
 
     // Helper methods
@@ -536,6 +603,15 @@ public class AIService {
         return "상황에 맞는 적절한 표현을 사용해보세요.";
     }
 
+    // circuit breaker/bulkhead 거절은 예상된 상황이므로 stack trace 없이 기록
+    private void logFailure(String message, Exception e) {
+        if (e instanceof AIUnavailableException) {
+            logger.warn("{}: {}", message, e.getMessage());
+        } else {
+            logger.error(message, e);
+        }
+    }
+
     private String analyzeEmotion(String text) {
         String lowerText = text.toLowerCase();
         if (lowerText.contains("ㅠ") || lowerText.contains("슬프") || lowerText.contains("떨어졌")) return "sad";
@@ -627,145 +703,31 @@ public class AIService {
         return "프로필 성향과 잘 맞음";
     }
 
-    private String extractField(String jsonResponse, String fieldName) {
-        try {
-            int start = jsonResponse.indexOf("\"" + fieldName + "\": \"") + fieldName.length() + 5;
-            int end = jsonResponse.indexOf("\"", start);
-            if (start > fieldName.length() + 4 && end > start) {
-                return jsonResponse.substring(start, end);
-            }
-        } catch (Exception e) {
-            logger.debug("Could not extract {} from response", fieldName);
+    private double scoreOrDefault(Double score, double defaultValue) {
+        if (score == null || score.isNaN()) {
+            return defaultValue;
         }
-        return null;
+        return Math.max(0.0, Math.min(1.0, score));
     }
 
-    private double extractScore(String jsonResponse) {
-        try {
-            int start = jsonResponse.indexOf("\"aggressionScore\": ") + 19;
-            int end = jsonResponse.indexOf(",", start);
-            if (end == -1) end = jsonResponse.indexOf("}", start);
-            if (start > 18 && end > start) {
-                String scoreStr = jsonResponse.substring(start, end).trim();
-                return Double.parseDouble(scoreStr);
-            }
-        } catch (Exception e) {
-            logger.debug("Could not extract score from response");
-        }
-        return 0.0;
-    }
-
-    private double extractEmotionScore(String jsonResponse) {
-        try {
-            int start = jsonResponse.indexOf("\"emotionScore\": ") + 16;
-            int end = jsonResponse.indexOf(",", start);
-            if (end == -1) end = jsonResponse.indexOf("}", start);
-            if (start > 15 && end > start) {
-                String scoreStr = jsonResponse.substring(start, end).trim();
-                return Double.parseDouble(scoreStr);
-            }
-        } catch (Exception e) {
-            logger.debug("Could not extract emotion score from response");
-        }
-        return 0.5;
+    // JSON mode 응답 형식 (AIResponseParserTest, AIResponseParserBenchmark에서도 사용)
+    record EmotionGuardResult(@JsonProperty("isAggressive") Boolean isAggressive, String aggressionType,
+                                      Double aggressionScore, String suggestion) {
     }
 
-    private List<String> extractEmojis(String jsonResponse) {
-        List<String> emojis = new ArrayList<>();
-        try {
-            int start = jsonResponse.indexOf("\"suggestedEmojis\": [") + 20;
-            int end = jsonResponse.indexOf("]", start);
-            if (start > 19 && end > start) {
-                String emojisStr = jsonResponse.substring(start, end);
-                String[] emojiArray = emojisStr.split(",");
-                for (String emoji : emojiArray) {
-                    String cleaned = emoji.trim().replaceAll("\"", "");
-                    if (!cleaned.isEmpty()) {
-                        emojis.add(cleaned);
-                    }
-                }
-            }
-        } catch (Exception e) {
-            logger.debug("Could not extract emojis from response");
-        }
-        if (emojis.isEmpty()) {
-            return Arrays.asList("👍", "❤️", "😊", "🙌", "✅");
-        }
-        return emojis;
+    record GuardedTransformResult(@JsonProperty("isAggressive") Boolean isAggressive, String aggressionType,
+                                          Double aggressionScore, String suggestion, String transformedText) {
     }
 
-    private List<ReactionSuggestResponse.SuggestedText> extractSuggestedTexts(String jsonResponse) {
-        List<ReactionSuggestResponse.SuggestedText> texts = new ArrayList<>();
-        try {
-            int start = jsonResponse.indexOf("\"suggestedTexts\": [");
-            if (start != -1) {
-                start += 19;
-                int end = jsonResponse.indexOf("]", start);
-                if (end > start) {
-                    String textsStr = jsonResponse.substring(start, end);
-                    // Simple parsing - look for text and type pairs
-                    String[] parts = textsStr.split("\\{");
-                    for (String part : parts) {
-                        if (part.contains("\"text\"") && part.contains("\"type\"")) {
-                            String text = extractJsonValue(part, "text");
-                            String type = extractJsonValue(part, "type");
-                            if (text != null && type != null) {
-                                texts.add(new ReactionSuggestResponse.SuggestedText(text, type));
-                            }
-                        }
-                    }
-                }
-            }
-        } catch (Exception e) {
-            logger.debug("Could not extract suggested texts from response");
-        }
-        return texts;
+    record ReactionResult(String emotion, Double emotionScore, List<String> suggestedEmojis,
+                                  List<ReactionSuggestResponse.SuggestedText> suggestedTexts,
+                                  List<ReactionSuggestResponse.QuickResponse> quickResponses) {
     }
 
-    private List<ReactionSuggestResponse.QuickResponse> extractQuickResponses(String jsonResponse) {
-        List<ReactionSuggestResponse.QuickResponse> responses = new ArrayList<>();
-        try {
-            int start = jsonResponse.indexOf("\"quickResponses\": [");
-            if (start != -1) {
-                start += 19;
-                int end = jsonResponse.indexOf("]", start);
-                if (end > start) {
-                    String responsesStr = jsonResponse.substring(start, end);
-                    // Simple parsing - look for text and icon pairs
-                    String[] parts = responsesStr.split("\\{");
-                    for (String part : parts) {
-                        if (part.contains("\"text\"") && part.contains("\"icon\"")) {
-                            String text = extractJsonValue(part, "text");
-                            String icon = extractJsonValue(part, "icon");
-                            if (text != null && icon != null) {
-                                responses.add(new ReactionSuggestResponse.QuickResponse(text, icon));
-                            }
-                        }
-                    }
-                }
-            }
-        } catch (Exception e) {
-            logger.debug("Could not extract quick responses from response");
-        }
-        return responses;
+    record MatchResult(List<MatchRecommendation> recommendations) {
     }
 
-    private String extractJsonValue(String json, String key) {
-        try {
-            String searchKey = "\"" + key + "\"";
-            int keyIndex = json.indexOf(searchKey);
-            if (keyIndex != -1) {
-                int colonIndex = json.indexOf(":", keyIndex);
-                int valueStart = json.indexOf("\"", colonIndex) + 1;
-                int valueEnd = json.indexOf("\"", valueStart);
-                if (valueStart > colonIndex && valueEnd > valueStart) {
-                    return json.substring(valueStart, valueEnd);
-                }
-            }
-        } catch (Exception e) {
-            logger.debug("Could not extract {} from JSON", key);
-        }
-        return null;
+    record MatchRecommendation(Long chatRoomId, Integer matchScore, String matchReason) {
     }
 
     // Legacy methods for backward compatibility
@@ -780,7 +742,7 @@ public class AIService {
     }
 
     public List<String> suggestReactions(String messageContent, String senderRelationship) {
-        ReactionSuggestResponse response = suggestReactions(messageContent, senderRelationship, 50.0, null, new ArrayList<>(), null);
+        ReactionSuggestResponse response = suggestReactions(messageContent, senderRelationship, 50.0, null, new ArrayList<>(), null, null);
         return response.getSuggestedEmojis();
     }
 }
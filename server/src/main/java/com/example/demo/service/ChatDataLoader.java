@@ -0,0 +1,188 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.ChatRoomMember;
+import com.example.demo.entity.Message;
+import com.example.demo.entity.Profile;
+import com.example.demo.entity.ProfileChatRoom;
+import com.example.demo.entity.Reaction;
+import com.example.demo.repository.ChatRoomMemberRepository;
+import com.example.demo.repository.MessageRepository;
+import com.example.demo.repository.ProfileChatRoomRepository;
+import com.example.demo.repository.ReactionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 채팅방 목록/메시지 목록 변환에 필요한 연관 데이터를 키 묶음 단위로 한 번에 조회하는 batch loader
+ *
+ * 호출하는 쪽에서 필요한 키(채팅방 ID, 메시지 ID, 사용자 ID)를 먼저 모은 뒤 종류별로 한 번씩 호출하면
+ * 목록 크기와 관계없이 IN / GROUP BY 쿼리 한 번으로 해결됨.
+ *
+ * 채팅방 멤버와 링크 프로필 단건 조회는 HTTP 요청 단위로 캐시되어, 같은 요청 안에서 다시 요청한 키는 조회하지 않음
+ * (멤버/프로필 할당을 바꾸는 쪽은 invalidate() 호출).
+ * 요청 스레드가 아닌 곳(long-poll 응답, SSE 이벤트, 스케줄러)에서는 캐시 없이 매번 조회함
+ */
+@Component
+public class ChatDataLoader {
+
+    private static final String CACHE_ATTRIBUTE = ChatDataLoader.class.getName() + ".cache";
+
+    private final ChatRoomMemberRepository chatRoomMemberRepository;
+    private final MessageRepository messageRepository;
+    private final ReactionRepository reactionRepository;
+    private final ProfileChatRoomRepository profileChatRoomRepository;
+
+    @Autowired
+    public ChatDataLoader(ChatRoomMemberRepository chatRoomMemberRepository,
+                          MessageRepository messageRepository,
+                          ReactionRepository reactionRepository,
+                          ProfileChatRoomRepository profileChatRoomRepository) {
+        this.chatRoomMemberRepository = chatRoomMemberRepository;
+        this.messageRepository = messageRepository;
+        this.reactionRepository = reactionRepository;
+        this.profileChatRoomRepository = profileChatRoomRepository;
+    }
+
+    /**
+     * 채팅방별 멤버 (사용자 정보 포함, 요청 단위 캐시)
+     */
+    public Map<Long, List<ChatRoomMember>> loadMembers(Collection<Long> chatRoomIds) {
+        if (chatRoomIds.isEmpty()) {
+            return new HashMap<>();
+        }
+        return loadCached("members", chatRoomIds, missing -> chatRoomMemberRepository.findByChatRoomIdIn(missing).stream()
+                .collect(Collectors.groupingBy(member -> member.getChatRoom().getId())));
+    }
+
+    /**
+     * 채팅방별 마지막 메시지 (메시지가 없는 채팅방은 결과에 없음)
+     */
+    public Map<Long, Message> loadLatestMessages(Collection<Long> chatRoomIds) {
+        if (chatRoomIds.isEmpty()) {
+            return new HashMap<>();
+        }
+        return messageRepository.findLatestByChatRoomIds(chatRoomIds).stream()
+                .collect(Collectors.toMap(message -> message.getChatRoom().getId(), message -> message));
+    }
+
+    /**
+     * 채팅방별 안 읽은 메시지 수 (안 읽은 메시지가 없는 채팅방은 결과에 없음)
+     */
+    public Map<Long, Long> loadUnreadCounts(Long userId, Collection<Long> chatRoomIds) {
+        Map<Long, Long> unreadCounts = new HashMap<>();
+        if (chatRoomIds.isEmpty()) {
+            return unreadCounts;
+        }
+        for (Object[] row : chatRoomMemberRepository.countUnreadMessagesByChatRoomIds(userId, chatRoomIds)) {
+            unreadCounts.put((Long) row[0], (Long) row[1]);
+        }
+        return unreadCounts;
+    }
+
+    /**
+     * 채팅방 x 멤버별 안 읽은 메시지 수 (chatRoomId -> userId -> count, 0인 멤버는 결과에 없음)
+     */
+    public Map<Long, Map<Long, Long>> loadMemberUnreadCounts(Collection<Long> chatRoomIds) {
+        Map<Long, Map<Long, Long>> unreadCounts = new HashMap<>();
+        if (chatRoomIds.isEmpty()) {
+            return unreadCounts;
+        }
+        for (Object[] row : chatRoomMemberRepository.countUnreadMessagesByMember(chatRoomIds)) {
+            unreadCounts.computeIfAbsent((Long) row[0], key -> new HashMap<>()).put((Long) row[1], (Long) row[2]);
+        }
+        return unreadCounts;
+    }
+
+    /**
+     * 메시지별 리액션 (리액션한 사용자 정보 포함, 리액션 순서 유지)
+     */
+    public Map<Long, List<Reaction>> loadReactions(Collection<Long> messageIds) {
+        if (messageIds.isEmpty()) {
+            return new HashMap<>();
+        }
+        return reactionRepository.findByMessageIdIn(messageIds).stream()
+                .collect(Collectors.groupingBy(reaction -> reaction.getMessage().getId()));
+    }
+
+    /**
+     * 사용자별로 주어진 채팅방들을 할당한 프로필 (userId -> chatRoomId -> Profile)
+     * 사용자가 다른 채팅방에 할당한 프로필은 읽지 않도록 채팅방 ID로도 제한함
+     */
+    public Map<Long, Map<Long, Profile>> loadLinkedProfiles(Collection<Long> userIds, Collection<Long> chatRoomIds) {
+        Map<Long, Map<Long, Profile>> linkedProfiles = new HashMap<>();
+        if (userIds.isEmpty() || chatRoomIds.isEmpty()) {
+            return linkedProfiles;
+        }
+
+        for (ProfileChatRoom assignment : profileChatRoomRepository.findByUserIdInAndChatRoomIdIn(userIds, chatRoomIds)) {
+            linkedProfiles.computeIfAbsent(assignment.getUserId(), key -> new HashMap<>())
+                    .put(assignment.getChatRoom().getId(), assignment.getProfile());
+        }
+        return linkedProfiles;
+    }
+
+    /**
+     * 특정 사용자가 특정 채팅방을 할당한 프로필 (없으면 null, 요청 단위 캐시)
+     */
+    public Profile findLinkedProfile(Long userId, Long chatRoomId) {
+        return loadCached("linkedProfile", List.of(userId + ":" + chatRoomId), missing -> {
+            Map<String, Profile> loaded = new HashMap<>();
+            profileChatRoomRepository.findProfileByUserIdAndChatRoomId(userId, chatRoomId)
+                    .ifPresent(profile -> loaded.put(userId + ":" + chatRoomId, profile));
+            return loaded;
+        }).get(userId + ":" + chatRoomId);
+    }
+
+    /**
+     * 현재 요청의 캐시를 비움 (채팅방 멤버나 프로필 할당을 바꾼 뒤 같은 요청에서 다시 조회할 때)
+     */
+    public void invalidate() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            attributes.removeAttribute(CACHE_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    /**
+     * 요청 캐시에 없는 키만 loader로 조회하고, 결과가 없는 키도 기록하여 다시 조회하지 않음
+     */
+    @SuppressWarnings("unchecked")
+    private <K, V> Map<K, V> loadCached(String name, Collection<K> keys, Function<Collection<K>, Map<K, V>> loader) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return loader.apply(keys);
+        }
+
+        Map<String, Map<Object, Optional<Object>>> caches =
+                (Map<String, Map<Object, Optional<Object>>>) attributes.getAttribute(CACHE_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (caches == null) {
+            caches = new HashMap<>();
+            attributes.setAttribute(CACHE_ATTRIBUTE, caches, RequestAttributes.SCOPE_REQUEST);
+        }
+        Map<Object, Optional<Object>> cache = caches.computeIfAbsent(name, key -> new HashMap<>());
+
+        List<K> missing = keys.stream().filter(key -> !cache.containsKey(key)).distinct().collect(Collectors.toList());
+        if (!missing.isEmpty()) {
+            Map<K, V> loaded = loader.apply(missing);
+            for (K key : missing) {
+                cache.put(key, Optional.ofNullable(loaded.get(key)));
+            }
+        }
+
+        Map<K, V> result = new HashMap<>();
+        for (K key : keys) {
+            cache.get(key).ifPresent(value -> result.put(key, (V) value));
+        }
+        return result;
+    }
+}
@@ -7,24 +7,29 @@ import com.example.demo.entity.ChatRoomMember;
 import com.example.demo.entity.Message;
 import com.example.demo.entity.Profile;
 import com.example.demo.entity.User;
+import com.example.demo.entity.UserInbox;
+import com.example.demo.event.ChatEvent;
 import com.example.demo.exception.EntityNotFoundException;
 import com.example.demo.repository.ChatRoomMemberRepository;
 import com.example.demo.repository.ChatRoomRepository;
 import com.example.demo.repository.MessageRepository;
+import com.example.demo.repository.ProfileChatRoomRepository;
 import com.example.demo.repository.ProfileRepository;
+import com.example.demo.repository.UserInboxRepository;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -38,6 +43,11 @@ public class ChatRoomService {
     private final ProfileRepository profileRepository;
     private final UserService userService;
     private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ChatDataLoader chatDataLoader;
+    private final UserInboxRepository userInboxRepository;
+    private final UserInboxService userInboxService;
+    private final ProfileChatRoomRepository profileChatRoomRepository;
 
     @Autowired
     public ChatRoomService(ChatRoomRepository chatRoomRepository,
@@ -45,105 +55,34 @@ public class ChatRoomService {
                            MessageRepository messageRepository,
                            ProfileRepository profileRepository,
                            UserService userService,
-                           ObjectMapper objectMapper) {
+                           ObjectMapper objectMapper,
+                           ApplicationEventPublisher eventPublisher,
+                           ChatDataLoader chatDataLoader,
+                           UserInboxRepository userInboxRepository,
+                           UserInboxService userInboxService,
+                           ProfileChatRoomRepository profileChatRoomRepository) {
         this.chatRoomRepository = chatRoomRepository;
         this.chatRoomMemberRepository = chatRoomMemberRepository;
         this.messageRepository = messageRepository;
         this.profileRepository = profileRepository;
         this.userService = userService;
         this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+        this.chatDataLoader = chatDataLoader;
+        this.userInboxRepository = userInboxRepository;
+        this.userInboxService = userInboxService;
+        this.profileChatRoomRepository = profileChatRoomRepository;
     }
 
     public List<ChatRoomResponse> getUserChatRooms(String profileId) {
         User currentUser = userService.getCurrentUser();
-        List<ChatRoom> chatRooms = chatRoomRepository.findByUserId(currentUser.getId());
 
-        // profileId가 없거나 "all"이면 모든 채팅방 반환
-        if (profileId != null && !profileId.equals("all")) {
-            try {
-                Long profileIdLong = Long.valueOf(profileId);
-                Profile profile = profileRepository.findById(profileIdLong).orElse(null);
-
-                if (profile != null) {
-                    if (profile.getIsDefault()) {
-                        // 기본 프로필: 다른 프로필에 속하지 않은 채팅방만 반환
-                        List<Profile> allProfiles = profileRepository.findByUserId(currentUser.getId());
-                        List<Long> assignedToOtherProfiles = new ArrayList<>();
-
-                        for (Profile p : allProfiles) {
-                            // 기본 프로필이 아니고, linkedChatRoomIds가 있는 경우
-                            if (!p.getIsDefault() && p.getLinkedChatRoomIds() != null && !p.getLinkedChatRoomIds().trim().isEmpty()) {
-                                List<Long> linkedIds = objectMapper.readValue(
-                                        p.getLinkedChatRoomIds(),
-                                        new TypeReference<List<Long>>() {}
-                                );
-                                assignedToOtherProfiles.addAll(linkedIds);
-                            }
-                        }
-
-                        // 다른 프로필에 할당되지 않은 채팅방만 필터링
-                        final List<Long> excludeIds = assignedToOtherProfiles;
-                        chatRooms = chatRooms.stream()
-                                .filter(room -> !excludeIds.contains(room.getId()))
-                                .collect(Collectors.toList());
-
-                        logger.debug("Default profile {}: showing {} chat rooms (excluding {} assigned to other profiles)",
-                                profileId, chatRooms.size(), excludeIds.size());
-                    } else {
-                        // 일반 프로필: linkedChatRoomIds에 지정된 채팅방만 반환
-                        if (profile.getLinkedChatRoomIds() != null && !profile.getLinkedChatRoomIds().trim().isEmpty()) {
-                            List<Long> assignedChatRoomIds = objectMapper.readValue(
-                                    profile.getLinkedChatRoomIds(),
-                                    new TypeReference<List<Long>>() {}
-                            );
-
-                            chatRooms = chatRooms.stream()
-                                    .filter(room -> assignedChatRoomIds.contains(room.getId()))
-                                    .collect(Collectors.toList());
-
-                            logger.debug("Profile {} (non-default): showing {} assigned chat rooms", profileId, chatRooms.size());
-                        } else {
-                            // linkedChatRoomIds가 없으면 빈 목록
-                            chatRooms = new ArrayList<>();
-                            logger.debug("Profile {} has no linkedChatRoomIds, showing 0 chat rooms", profileId);
-                        }
-                    }
-                }
-            } catch (Exception e) {
-                logger.error("Failed to filter chat rooms by profileId: {}", profileId, e);
-            }
-        } else {
-            logger.debug("No profileId or profileId=all, showing all chat rooms");
-        }
-
-        return chatRooms.stream()
-                .map(room -> {
-                    ChatRoomResponse response = toChatRoomResponse(room, currentUser);
-
-                    ChatRoomMember currentMember = chatRoomMemberRepository
-                            .findByChatRoomIdAndUserId(room.getId(), currentUser.getId())
-                            .orElse(null);
-
-                    if (currentMember != null) {
-                        Long unreadCount = chatRoomMemberRepository.countUnreadMessages(
-                                room.getId(),
-                                currentMember.getLastReadMessageId(),
-                                currentUser.getId()
-                        );
-                        response.setUnreadCount(unreadCount);
-                        logger.debug("Chat room {} unread count: {} (lastReadMessageId: {})",
-                                room.getId(), unreadCount, currentMember.getLastReadMessageId());
-                    } else {
-                        response.setUnreadCount(0L);
-                    }
+        // user_inbox projection에서 최신 메시지 순으로 바로 읽음 (이름/아바타, 마지막 메시지, 안 읽은 수 포함)
+        List<UserInbox> rows = findInboxRows(currentUser, profileId);
+        logger.debug("Loaded {} inbox rows for user {} (profileId: {})", rows.size(), currentUser.getId(), profileId);
 
-                    return response;
-                })
-                // 최신 메시지 순으로 정렬 (null은 맨 뒤로)
-                .sorted(Comparator.comparing(
-                        ChatRoomResponse::getLastMessageTime,
-                        Comparator.nullsLast(Comparator.reverseOrder())
-                ))
+        return rows.stream()
+                .map(this::toChatRoomResponse)
                 .collect(Collectors.toList());
     }
 
@@ -157,7 +96,7 @@ public class ChatRoomService {
                 .findByChatRoomIdAndUserId(chatRoomId, currentUser.getId())
                 .orElseThrow(() -> new EntityNotFoundException("User is not a member of this chat room"));
 
-        ChatRoomResponse response = toChatRoomResponse(chatRoom, currentUser);
+        ChatRoomResponse response = toChatRoomResponses(List.of(chatRoom), currentUser).get(0);
 
         List<ChatRoomMember> members = chatRoomMemberRepository.findByChatRoomId(chatRoomId);
         response.setMembers(members.stream()
@@ -190,6 +129,8 @@ public class ChatRoomService {
         logger.info("Deleting chat room {} by user: {} (LDAP: {})",
                 chatRoomId, currentUser.getName(), currentUser.getLdap());
 
+        List<Long> memberUserIds = chatRoomMemberRepository.findUserIdsByChatRoomId(chatRoomId);
+
         // 1. 채팅방의 모든 메시지 삭제 (reactions도 함께 삭제됨)
         List<Message> messages = messageRepository.findByChatRoomIdOrderByTimestampAsc(chatRoomId);
         for (Message message : messages) {
@@ -200,11 +141,13 @@ public class ChatRoomService {
         // 2. 채팅방 멤버 삭제
         List<ChatRoomMember> members = chatRoomMemberRepository.findByChatRoomId(chatRoomId);
         chatRoomMemberRepository.deleteAll(members);
+        chatDataLoader.invalidate();
 
         // 3. 채팅방 삭제
         chatRoomRepository.delete(chatRoom);
 
         logger.info("Chat room {} successfully deleted", chatRoomId);
+        eventPublisher.publishEvent(new ChatEvent(ChatEvent.ROOM_CHANGED, chatRoomId, memberUserIds, chatRoomId));
     }
 
     public void markAsRead(Long chatRoomId, Long messageId) {
@@ -214,24 +157,80 @@ public class ChatRoomService {
                 .findByChatRoomIdAndUserId(chatRoomId, currentUser.getId())
                 .orElseThrow(() -> new EntityNotFoundException("User is not a member of this chat room"));
 
-        // If messageId is null, mark all messages as read by using the latest message ID
-        Long targetMessageId = messageId;
-        if (targetMessageId == null) {
-            Optional<Message> latestMessage = messageRepository.findFirstByChatRoomIdOrderByTimestampDesc(chatRoomId);
-            if (latestMessage.isPresent()) {
-                targetMessageId = latestMessage.get().getId();
-                logger.info("No messageId provided, using latest message ID: {}", targetMessageId);
-            } else {
-                logger.info("No messages in room {}, skipping mark as read", chatRoomId);
-                return; // No messages to mark as read
+        // If messageId is null, mark all messages as read up to the latest message in a single statement
+        if (messageId == null) {
+            int updated = chatRoomMemberRepository.markLatestAsRead(currentUser.getId(), List.of(chatRoomId));
+            logger.info("User {} marked all messages as read in room {} (advanced: {})",
+                    currentUser.getId(), chatRoomId, updated > 0);
+            if (updated > 0) {
+                userInboxService.refreshUnreadCounts(currentUser.getId(), List.of(chatRoomId));
+                publishReadUpdated(chatRoomId, currentUser.getId(),
+                        chatRoomMemberRepository.findLastReadMessageId(chatRoomId, currentUser.getId()));
             }
+            return;
         }
 
-        member.setLastReadMessageId(targetMessageId);
-        chatRoomMemberRepository.save(member);
+        // watermark는 앞으로만 이동 (늦게 도착한 요청이 읽음 위치를 되돌리지 않도록)
+        int updated = chatRoomMemberRepository.advanceLastReadMessageId(member.getId(), messageId);
 
-        logger.info("User {} marked messages up to {} as read in room {}",
-                currentUser.getId(), targetMessageId, chatRoomId);
+        logger.info("User {} marked messages up to {} as read in room {} (advanced: {})",
+                currentUser.getId(), messageId, chatRoomId, updated > 0);
+        if (updated > 0) {
+            userInboxService.refreshUnreadCounts(currentUser.getId(), List.of(chatRoomId));
+            publishReadUpdated(chatRoomId, currentUser.getId(), messageId);
+        }
+    }
+
+    /**
+     * 프로필에 속한 모든 채팅방을 한 번에 읽음 처리 ("전체 읽음" 버튼)
+     * profileId가 없거나 "all"이면 사용자의 모든 채팅방을 읽음 처리
+     *
+     * @return watermark가 전진한 채팅방 수
+     */
+    public int markAllAsRead(String profileId) {
+        User currentUser = userService.getCurrentUser();
+
+        if (profileId != null && !profileId.equals("all")) {
+            long profileIdLong;
+            try {
+                profileIdLong = Long.parseLong(profileId);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid profileId: " + profileId);
+            }
+            Profile profile = profileRepository.findById(profileIdLong)
+                    .orElseThrow(() -> new EntityNotFoundException("Profile not found with id: " + profileId));
+            if (!profile.getUser().getId().equals(currentUser.getId())) {
+                throw new IllegalArgumentException("You can only access your own profiles");
+            }
+        }
+
+        List<Long> chatRoomIds = findInboxRows(currentUser, profileId).stream()
+                .map(row -> row.getChatRoom().getId())
+                .collect(Collectors.toList());
+
+        if (chatRoomIds.isEmpty()) {
+            logger.info("No chat rooms to mark as read for profile: {}", profileId);
+            return 0;
+        }
+
+        int updated = chatRoomMemberRepository.markLatestAsRead(currentUser.getId(), chatRoomIds);
+        logger.info("User {} marked {} of {} chat rooms as read (profileId: {})",
+                currentUser.getId(), updated, chatRoomIds.size(), profileId);
+
+        if (updated > 0) {
+            userInboxService.refreshUnreadCounts(currentUser.getId(), chatRoomIds);
+
+            // 채팅방별 멤버를 한 번에 조회하여 읽음 이벤트 전달
+            Map<Long, List<ChatRoomMember>> membersByRoom = chatRoomMemberRepository.findByChatRoomIdIn(chatRoomIds).stream()
+                    .collect(Collectors.groupingBy(m -> m.getChatRoom().getId()));
+            membersByRoom.forEach((chatRoomId, members) -> members.stream()
+                    .filter(m -> m.getUser().getId().equals(currentUser.getId()))
+                    .findFirst()
+                    .ifPresent(self -> eventPublisher.publishEvent(new ChatEvent(ChatEvent.READ_UPDATED, chatRoomId,
+                            members.stream().map(m -> m.getUser().getId()).collect(Collectors.toList()),
+                            new ReadReceiptResponse(chatRoomId, currentUser.getId(), self.getLastReadMessageId())))));
+        }
+        return updated;
     }
 
     public ChatRoomResponse createChatRoom(CreateChatRoomRequest request) {
@@ -285,6 +284,10 @@ public class ChatRoomService {
 
         chatRoomMemberRepository.save(member1);
         chatRoomMemberRepository.save(member2);
+        chatDataLoader.invalidate();
+
+        eventPublisher.publishEvent(new ChatEvent(ChatEvent.ROOM_CHANGED, savedChatRoom.getId(),
+                List.of(currentUser.getId(), friend.getId()), savedChatRoom.getId()));
 
         // profileId 처리: 제공되지 않으면 기본 프로필 사용
         String targetProfileId = request.getProfileId();
@@ -309,34 +312,21 @@ public class ChatRoomService {
                 Profile profile = profileRepository.findById(profileIdLong).orElse(null);
 
                 if (profile != null && profile.getUser().getId().equals(currentUser.getId())) {
-                    List<Long> assignedChatRoomIds = new ArrayList<>();
-
-                    // 기존 linkedChatRoomIds 가져오기
-                    if (profile.getLinkedChatRoomIds() != null && !profile.getLinkedChatRoomIds().trim().isEmpty()) {
-                        assignedChatRoomIds = objectMapper.readValue(
-                                profile.getLinkedChatRoomIds(),
-                                new TypeReference<List<Long>>() {}
-                        );
-                    }
-
-                    // 새 채팅방 ID 추가
-                    if (!assignedChatRoomIds.contains(savedChatRoom.getId())) {
-                        assignedChatRoomIds.add(savedChatRoom.getId());
-                        String updatedJson = objectMapper.writeValueAsString(assignedChatRoomIds);
-                        profile.setLinkedChatRoomIds(updatedJson);
-                        profileRepository.save(profile);
-
-                        logger.info("Added chat room {} to profile {} ({})", savedChatRoom.getId(), profileIdLong,
-                                   profile.getIsDefault() ? "default" : "custom");
-                    }
+                    profileChatRoomRepository.assign(currentUser.getId(), profile.getId(), List.of(savedChatRoom.getId()));
+                    chatDataLoader.invalidate();
+                    logger.info("Added chat room {} to profile {} ({})", savedChatRoom.getId(), profileIdLong,
+                               profile.getIsDefault() ? "default" : "custom");
                 }
-            } catch (Exception e) {
+            } catch (NumberFormatException e) {
                 logger.error("Failed to add chat room to profile: {}", targetProfileId, e);
             }
         }
 
+        // 두 멤버의 inbox 행 생성 (프로필 할당 반영 후)
+        userInboxService.refreshChatRooms(List.of(savedChatRoom.getId()));
+
         // 응답 생성
-        ChatRoomResponse response = toChatRoomResponse(savedChatRoom, currentUser);
+        ChatRoomResponse response = toChatRoomResponses(List.of(savedChatRoom), currentUser).get(0);
         response.setUnreadCount(0L);
         response.setLastMessage(null);
         response.setLastMessageTime(null);
@@ -344,6 +334,56 @@ public class ChatRoomService {
         return response;
     }
 
+    /**
+     * profileId에 해당하는 inbox 행 조회
+     * - profileId가 없거나 "all"이면 모든 채팅방
+     * - 기본 프로필: 다른 프로필에 할당되지 않은 채팅방
+     * - 일반 프로필: 해당 프로필에 할당된 채팅방
+     */
+    private List<UserInbox> findInboxRows(User currentUser, String profileId) {
+        if (profileId == null || profileId.equals("all")) {
+            return userInboxRepository.findByUserId(currentUser.getId());
+        }
+
+        Profile profile;
+        try {
+            profile = profileRepository.findById(Long.valueOf(profileId)).orElse(null);
+        } catch (NumberFormatException e) {
+            logger.error("Invalid profileId: {}", profileId, e);
+            profile = null;
+        }
+
+        if (profile == null) {
+            return userInboxRepository.findByUserId(currentUser.getId());
+        }
+        if (profile.getIsDefault()) {
+            return userInboxRepository.findUnassignedByUserId(currentUser.getId());
+        }
+        return userInboxRepository.findByUserIdAndProfileId(currentUser.getId(), profile.getId());
+    }
+
+    private ChatRoomResponse toChatRoomResponse(UserInbox row) {
+        ChatRoom chatRoom = row.getChatRoom();
+        ChatRoomResponse response = new ChatRoomResponse();
+        response.setId(chatRoom.getId());
+        response.setIsGroup(chatRoom.getIsGroup());
+        response.setFormalityLevel(chatRoom.getFormalityLevel());
+        response.setRelationship(chatRoom.getRelationship());
+        response.setName(row.getDisplayName() != null ? row.getDisplayName() : chatRoom.getName());
+        response.setAvatar(row.getDisplayAvatar() != null ? row.getDisplayAvatar() : chatRoom.getAvatar());
+        response.setKeywords(parseKeywords(chatRoom));
+        response.setUnreadCount(row.getUnreadCount());
+        response.setLastMessage(row.getLastMessagePreview());
+        response.setLastMessageTime(row.getLastMessageTime());
+        return response;
+    }
+
+    private void publishReadUpdated(Long chatRoomId, Long userId, Long lastReadMessageId) {
+        eventPublisher.publishEvent(new ChatEvent(ChatEvent.READ_UPDATED, chatRoomId,
+                chatRoomMemberRepository.findUserIdsByChatRoomId(chatRoomId),
+                new ReadReceiptResponse(chatRoomId, userId, lastReadMessageId)));
+    }
+
     private String convertFormalityLevel(Double level) {
         if (level == null) {
             return "informal";
@@ -357,7 +397,32 @@ public class ChatRoomService {
         }
     }
 
-    private ChatRoomResponse toChatRoomResponse(ChatRoom chatRoom, User currentUser) {
+    /**
+     * 채팅방 목록을 응답으로 변환. 필요한 연관 데이터는 목록 전체에 대해 한 번에 조회함 (unreadCount 제외)
+     */
+    private List<ChatRoomResponse> toChatRoomResponses(List<ChatRoom> chatRooms, User currentUser) {
+        List<Long> chatRoomIds = chatRooms.stream().map(ChatRoom::getId).collect(Collectors.toList());
+        Map<Long, List<ChatRoomMember>> membersByRoom = chatDataLoader.loadMembers(chatRoomIds);
+        Map<Long, Message> lastMessages = chatDataLoader.loadLatestMessages(chatRoomIds);
+
+        // 1:1 채팅방 상대방들이 각 채팅방을 링크한 프로필
+        Set<Long> otherUserIds = membersByRoom.values().stream()
+                .flatMap(List::stream)
+                .map(member -> member.getUser().getId())
+                .filter(userId -> !userId.equals(currentUser.getId()))
+                .collect(Collectors.toSet());
+        Map<Long, Map<Long, Profile>> linkedProfiles = chatDataLoader.loadLinkedProfiles(otherUserIds, chatRoomIds);
+
+        return chatRooms.stream()
+                .map(room -> toChatRoomResponse(room, currentUser,
+                        membersByRoom.getOrDefault(room.getId(), List.of()),
+                        lastMessages.get(room.getId()),
+                        linkedProfiles))
+                .collect(Collectors.toList());
+    }
+
+    private ChatRoomResponse toChatRoomResponse(ChatRoom chatRoom, User currentUser, List<ChatRoomMember> members,
+                                                Message lastMessage, Map<Long, Map<Long, Profile>> linkedProfiles) {
         ChatRoomResponse response = new ChatRoomResponse();
         response.setId(chatRoom.getId());
         response.setIsGroup(chatRoom.getIsGroup());
@@ -366,7 +431,6 @@ public class ChatRoomService {
 
         // 1:1 채팅방인 경우, 현재 사용자가 아닌 상대방의 이름과 아바타 표시
         if (!chatRoom.getIsGroup()) {
-            List<ChatRoomMember> members = chatRoomMemberRepository.findByChatRoomId(chatRoom.getId());
             User otherUser = members.stream()
                     .map(ChatRoomMember::getUser)
                     .filter(user -> !user.getId().equals(currentUser.getId()))
@@ -378,7 +442,7 @@ public class ChatRoomService {
 
                 // 상대방이 이 채팅방을 어떤 프로필에 링크했는지 확인
                 String avatar = otherUser.getAvatar(); // 기본값은 User의 아바타
-                Profile linkedProfile = findProfileByChatRoomId(otherUser.getId(), chatRoom.getId());
+                Profile linkedProfile = linkedProfiles.getOrDefault(otherUser.getId(), Map.of()).get(chatRoom.getId());
 
                 if (linkedProfile != null && linkedProfile.getAvatar() != null) {
                     avatar = linkedProfile.getAvatar();
@@ -404,28 +468,33 @@ public class ChatRoomService {
         }
 
         if (chatRoom.getKeywords() != null) {
-            try {
-                List<String> keywords = objectMapper.readValue(
-                        chatRoom.getKeywords(),
-                        new TypeReference<List<String>>() {}
-                );
-                response.setKeywords(keywords);
-            } catch (JsonProcessingException e) {
-                logger.error("Failed to parse keywords JSON", e);
-                response.setKeywords(new ArrayList<>());
-            }
+            response.setKeywords(parseKeywords(chatRoom));
         }
 
         // 마지막 메시지 정보 설정
-        Optional<Message> lastMessage = messageRepository.findFirstByChatRoomIdOrderByTimestampDesc(chatRoom.getId());
-        if (lastMessage.isPresent()) {
-            response.setLastMessage(lastMessage.get().getContent());
-            response.setLastMessageTime(lastMessage.get().getTimestamp());
+        if (lastMessage != null) {
+            response.setLastMessage(lastMessage.getContent());
+            response.setLastMessageTime(lastMessage.getTimestamp());
         }
 
         return response;
     }
 
+    private List<String> parseKeywords(ChatRoom chatRoom) {
+        if (chatRoom.getKeywords() == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(
+                    chatRoom.getKeywords(),
+                    new TypeReference<List<String>>() {}
+            );
+        } catch (JsonProcessingException e) {
+            logger.error("Failed to parse keywords JSON", e);
+            return new ArrayList<>();
+        }
+    }
+
     private MemberResponse toMemberResponse(ChatRoomMember member) {
         User user = member.getUser();
         UserResponse userResponse = new UserResponse(
@@ -442,27 +511,4 @@ public class ChatRoomService {
                 member.getJoinedAt()
         );
     }
-
-    /**
-     * 특정 사용자가 특정 채팅방을 linkedChatRoomIds에 포함한 프로필을 찾음
-     */
-    private Profile findProfileByChatRoomId(Long userId, Long chatRoomId) {
-        try {
-            List<Profile> profiles = profileRepository.findByUserId(userId);
-            for (Profile profile : profiles) {
-                if (profile.getLinkedChatRoomIds() != null && !profile.getLinkedChatRoomIds().trim().isEmpty()) {
-                    List<Long> linkedIds = objectMapper.readValue(
-                            profile.getLinkedChatRoomIds(),
-                            new TypeReference<List<Long>>() {}
-                    );
-                    if (linkedIds.contains(chatRoomId)) {
-                        return profile;
-                    }
-                }
-            }
-        } catch (Exception e) {
-            logger.error("Failed to find profile by chatRoomId: {}", chatRoomId, e);
-        }
-        return null;
-    }
 }
@@ -0,0 +1,183 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.response.MessageResponse;
+import com.example.demo.entity.ChatRoomSummary;
+import com.example.demo.entity.Message;
+import com.example.demo.event.ChatEvent;
+import com.example.demo.exception.AIUnavailableException;
+import com.example.demo.repository.ChatRoomSummaryRepository;
+import com.example.demo.repository.MessageRepository;
+import com.openai.models.ChatModel;
+import com.openai.models.chat.completions.ChatCompletionCreateParams;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 채팅방별 누적 대화 요약
+ *
+ * - 채팅방 seq가 ai.summary.interval의 배수가 될 때마다 백그라운드(가상 스레드)에서 갱신
+ * - 갱신은 (이전 요약 + 이후 새 메시지 최대 ai.summary.max-delta개)만 모델에 보내므로 대화가 길어져도 비용이 일정함
+ * - 요약에 반영된 메시지(seq <= lastSeq)는 프롬프트에서 원문 대신 요약으로 대체됨 (ConversationPromptBuilder)
+ * - 같은 채팅방의 갱신은 한 번에 하나만 실행하며, 실패하면 다음 배수에서 밀린 메시지까지 함께 반영함
+ */
+@Service
+public class ChatRoomSummaryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChatRoomSummaryService.class);
+
+    /**
+     * 프롬프트에 넣을 요약 (lastSeq 이하 메시지까지 반영됨)
+     */
+    public record Summary(String text, long lastSeq) {
+    }
+
+    private final ChatRoomSummaryRepository chatRoomSummaryRepository;
+    private final MessageRepository messageRepository;
+    private final AICompletionClient aiCompletionClient;
+    private final TransactionTemplate readTransaction;
+    private final TransactionTemplate writeTransaction;
+    private final Set<Long> refreshing = ConcurrentHashMap.newKeySet();
+    private final String model;
+    private final boolean enabled;
+    private final int interval;
+    private final int maxDelta;
+
+    @Autowired
+    public ChatRoomSummaryService(ChatRoomSummaryRepository chatRoomSummaryRepository,
+                                  MessageRepository messageRepository,
+                                  AICompletionClient aiCompletionClient,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${openai.model}") String model,
+                                  @Value("${ai.summary.enabled:true}") boolean enabled,
+                                  @Value("${ai.summary.interval:20}") int interval,
+                                  @Value("${ai.summary.max-delta:100}") int maxDelta) {
+        this.chatRoomSummaryRepository = chatRoomSummaryRepository;
+        this.messageRepository = messageRepository;
+        this.aiCompletionClient = aiCompletionClient;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.model = model;
+        this.enabled = enabled;
+        this.interval = interval;
+        this.maxDelta = maxDelta;
+    }
+
+    /**
+     * @return 채팅방 요약, 아직 없거나 비활성화되어 있으면 null
+     */
+    public Summary findSummary(Long chatRoomId) {
+        if (!enabled || chatRoomId == null) {
+            return null;
+        }
+        return chatRoomSummaryRepository.findById(chatRoomId)
+                .map(summary -> new Summary(summary.getSummary(), summary.getLastSeq()))
+                .orElse(null);
+    }
+
+    /**
+     * 메시지가 커밋된 뒤 seq가 interval의 배수이면 요약 갱신을 시작
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChatEvent(ChatEvent event) {
+        if (!enabled || !ChatEvent.MESSAGE_CREATED.equals(event.getType())
+                || !(event.getPayload() instanceof MessageResponse message) || message.getSeq() == null) {
+            return;
+        }
+        if (message.getSeq() % interval != 0) {
+            return;
+        }
+
+        Long chatRoomId = event.getChatRoomId();
+        if (!refreshing.add(chatRoomId)) {
+            return;
+        }
+        Thread.ofVirtual().name("chat-summary-" + chatRoomId).start(() -> {
+            try {
+                refreshSummary(chatRoomId);
+            } finally {
+                refreshing.remove(chatRoomId);
+            }
+        });
+    }
+
+    /**
+     * 이전 요약 이후의 메시지를 반영하여 요약을 갱신 (조회/저장만 트랜잭션으로 실행하고 AI 호출 중에는 커넥션을 잡지 않음)
+     */
+    void refreshSummary(Long chatRoomId) {
+        try {
+            SummaryInput input = readTransaction.execute(status -> loadSummaryInput(chatRoomId));
+            if (input == null) {
+                return;
+            }
+
+            String systemPrompt = "당신은 채팅 대화를 요약하는 전문가입니다. 이후 답장 추천에 필요한 맥락만 간결하게 정리합니다.";
+            String userPrompt = String.format(
+                "이전 요약에 새 대화를 반영하여 전체 대화의 요약을 다시 작성해주세요.\n\n" +
+                "**작성 규칙:**\n" +
+                "- 한국어로 5문장 이내\n" +
+                "- 두 사람의 관계와 말투, 주요 주제, 약속이나 결정된 사항, 최근 감정 흐름 위주로 정리\n" +
+                "- 요약 내용만 출력하고 추가 설명은 하지 마세요\n\n" +
+                "**이전 요약:**\n%s\n\n" +
+                "**새 대화:**\n%s",
+                input.previousSummary() != null ? input.previousSummary() : "(없음)", input.transcript()
+            );
+
+            ChatCompletionCreateParams params = ChatCompletionCreateParams.builder()
+                    .model(ChatModel.of(model))
+                    .addSystemMessage(systemPrompt)
+                    .addUserMessage(userPrompt)
+                    .temperature(0.3)
+                    .maxCompletionTokens(400L)
+                    .build();
+
+            String summary = aiCompletionClient.complete("conversation-summary", params);
+            if (summary == null || summary.isBlank()) {
+                logger.warn("Empty conversation summary for chatRoom {}", chatRoomId);
+                return;
+            }
+
+            Integer updated = writeTransaction.execute(status ->
+                    chatRoomSummaryRepository.upsertIfNewer(chatRoomId, summary.strip(), input.lastSeq()));
+            logger.info("Conversation summary for chatRoom {} updated through seq {} (stored: {})",
+                    chatRoomId, input.lastSeq(), updated != null && updated > 0);
+        } catch (AIUnavailableException e) {
+            logger.warn("Skipped conversation summary for chatRoom {}: {}", chatRoomId, e.getMessage());
+        } catch (Exception e) {
+            logger.error("Failed to update conversation summary for chatRoom {}", chatRoomId, e);
+        }
+    }
+
+    private SummaryInput loadSummaryInput(Long chatRoomId) {
+        ChatRoomSummary current = chatRoomSummaryRepository.findById(chatRoomId).orElse(null);
+        long lastSeq = current != null ? current.getLastSeq() : 0L;
+
+        List<Message> delta = messageRepository.findAfterSeq(chatRoomId, lastSeq, maxDelta);
+        if (delta.size() < interval) {
+            // 다른 갱신이 이미 반영한 경우
+            return null;
+        }
+
+        StringBuilder transcript = new StringBuilder();
+        for (Message message : delta) {
+            if (message.getContent() != null && !message.getContent().isBlank()) {
+                transcript.append(message.getSender().getName()).append(": ").append(message.getContent()).append('\n');
+            }
+        }
+        return new SummaryInput(current != null ? current.getSummary() : null, transcript.toString(),
+                delta.get(delta.size() - 1).getSeq());
+    }
+
+    private record SummaryInput(String previousSummary, String transcript, long lastSeq) {
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.Message;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 프롬프트에 넣을 대화 맥락 구성
+ *
+ * 최신 메시지부터 ai.history.token-budget(추정 토큰 수)을 넘지 않을 때까지 채우고, 시간순으로 출력함.
+ * 채팅방 요약(ChatRoomSummaryService)이 있으면 요약에 반영된 메시지는 원문 대신 요약을 넣음.
+ * 채팅방이 커져도 프롬프트 크기가 일정하게 유지됨
+ */
+@Component
+public class ConversationPromptBuilder {
+
+    // 메시지 한 줄마다 붙는 발신자 표시/줄바꿈 등
+    private static final int TOKENS_PER_LINE = 4;
+
+    /**
+     * 프롬프트에 넣을 메시지 값. 엔티티(지연 로딩 sender)는 요청 스레드에서 이 값으로 바꾼 뒤 AI 스레드로 넘김
+     */
+    public record HistoryMessage(Long seq, Long senderId, String content) {
+
+        public static HistoryMessage from(Message message) {
+            // sender 프록시의 ID는 초기화 없이 읽힘
+            return new HistoryMessage(message.getSeq(), message.getSender().getId(), message.getContent());
+        }
+    }
+
+    private final int tokenBudget;
+    private final int maxMessages;
+
+    @Autowired
+    public ConversationPromptBuilder(@Value("${ai.history.token-budget:800}") int tokenBudget,
+                                     @Value("${ai.history.max-messages:50}") int maxMessages) {
+        this.tokenBudget = tokenBudget;
+        this.maxMessages = maxMessages;
+    }
+
+    /**
+     * DB에서 읽어올 최근 메시지 수 (MessageRepository.findRecent)
+     */
+    public int maxMessages() {
+        return maxMessages;
+    }
+
+    /**
+     * @param summary 채팅방 요약, 없으면 null
+     * @param recentMessages 최신순 메시지 (HistoryMessage.from)
+     * @param currentUserId "나"로 표시할 사용자
+     * @return 대화 맥락 블록, 넣을 내용이 없으면 빈 문자열
+     */
+    public String buildHistory(ChatRoomSummaryService.Summary summary, List<HistoryMessage> recentMessages, Long currentUserId) {
+        List<HistoryMessage> messages = recentMessages != null ? recentMessages : List.of();
+        int usedTokens = 0;
+        String summaryBlock = "";
+        if (summary != null) {
+            summaryBlock = "**이전 대화 요약:**\n" + summary.text() + "\n\n";
+            usedTokens += estimateTokens(summaryBlock);
+        }
+
+        List<String> lines = new ArrayList<>();
+        boolean truncated = false;
+        for (HistoryMessage message : messages) {
+            if (summary != null && message.seq() != null && message.seq() <= summary.lastSeq()) {
+                // 여기부터는 요약에 반영된 메시지
+                break;
+            }
+            if (message.content() == null || message.content().isBlank()) {
+                continue;
+            }
+            String senderLabel = message.senderId().equals(currentUserId) ? "나" : "상대방";
+            String line = senderLabel + ": " + message.content();
+            int lineTokens = estimateTokens(line) + TOKENS_PER_LINE;
+            if (usedTokens + lineTokens > tokenBudget) {
+                truncated = true;
+                break;
+            }
+            lines.add(line);
+            usedTokens += lineTokens;
+        }
+        if (lines.isEmpty()) {
+            return summaryBlock;
+        }
+
+        Collections.reverse(lines);
+        StringBuilder history = new StringBuilder(summaryBlock).append("**대화 맥락 (최근 대화):**\n");
+        if (truncated) {
+            history.append("... (이전 대화 생략)\n");
+        }
+        for (String line : lines) {
+            history.append(line).append('\n');
+        }
+        return history.append('\n').toString();
+    }
+
+    /**
+     * 토크나이저 없이 하는 보수적인 토큰 수 추정: ASCII는 4글자당 1토큰, 한글 등 그 외 문자는 글자당 1토큰
+     */
+    static int estimateTokens(CharSequence text) {
+        int asciiChars = 0;
+        int otherChars = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                asciiChars++;
+            } else if (!Character.isLowSurrogate(c)) {
+                otherChars++;
+            }
+        }
+        return (asciiChars + 3) / 4 + otherChars;
+    }
+}
@@ -6,40 +6,75 @@ import com.example.demo.entity.ChatRoom;
 import com.example.demo.entity.ChatRoomMember;
 import com.example.demo.entity.Message;
 import com.example.demo.entity.Profile;
-import com.example.demo.entity.MessageRead;
 import com.example.demo.entity.Reaction;
 import com.example.demo.entity.User;
+import com.example.demo.event.ChatEvent;
+import com.example.demo.exception.AIPipelineTimeoutException;
 import com.example.demo.exception.EntityNotFoundException;
 import com.example.demo.repository.ChatRoomMemberRepository;
 import com.example.demo.repository.ChatRoomRepository;
-import com.example.demo.repository.MessageReadRepository;
 import com.example.demo.repository.MessageRepository;
 import com.example.demo.repository.ProfileRepository;
 import com.example.demo.repository.ReactionRepository;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.StructuredTaskScope;
+import java.util.concurrent.StructuredTaskScope.Subtask;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class MessageService {
     private static final Logger logger = LoggerFactory.getLogger(MessageService.class);
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final int MAX_SYNC_ROOMS = 200;
+    private static final int MAX_SYNC_MESSAGES_PER_ROOM = 50;
+    private static final String PIPELINE_SEQUENTIAL = "sequential";
+    private static final String PIPELINE_COMBINED = "combined";
+    private static final String PIPELINE_PARALLEL = "parallel";
+    private static final String SEND_LATENCY_METRIC = "message.send.latency";
+    private static final String PIPELINE_FALLBACK_METRIC = "ai.pipeline.fallback";
     private final MessageRepository messageRepository;
     private final ChatRoomRepository chatRoomRepository;
     private final ChatRoomMemberRepository chatRoomMemberRepository;
     private final ProfileRepository profileRepository;
     private final ReactionRepository reactionRepository;
-    private final MessageReadRepository messageReadRepository;
     private final UserService userService;
     private final AIService aiService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ChatDataLoader chatDataLoader;
+    private final UserInboxService userInboxService;
+    private final AIReceiptService aiReceiptService;
+    private final MeterRegistry meterRegistry;
+    private final TransactionTemplate readTransaction;
+    private final TransactionTemplate writeTransaction;
+    private final String pipelineMode;
+    private final Duration pipelineTimeout;
 
     @Autowired
     public MessageService(MessageRepository messageRepository,
@@ -47,69 +82,139 @@ public class MessageService {
                           ChatRoomMemberRepository chatRoomMemberRepository,
                           ProfileRepository profileRepository,
                           ReactionRepository reactionRepository,
-                          MessageReadRepository messageReadRepository,
                           UserService userService,
-                          AIService aiService) {
+                          AIService aiService,
+                          ApplicationEventPublisher eventPublisher,
+                          ChatDataLoader chatDataLoader,
+                          UserInboxService userInboxService,
+                          AIReceiptService aiReceiptService,
+                          MeterRegistry meterRegistry,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${ai.pipeline.mode:sequential}") String pipelineMode,
+                          @Value("${ai.pipeline.timeout:20s}") Duration pipelineTimeout,
+                          @Value("${spring.jpa.open-in-view:true}") boolean openInView) {
         this.messageRepository = messageRepository;
         this.chatRoomRepository = chatRoomRepository;
         this.chatRoomMemberRepository = chatRoomMemberRepository;
         this.profileRepository = profileRepository;
         this.reactionRepository = reactionRepository;
-        this.messageReadRepository = messageReadRepository;
         this.userService = userService;
         this.aiService = aiService;
+        this.eventPublisher = eventPublisher;
+        this.chatDataLoader = chatDataLoader;
+        this.userInboxService = userInboxService;
+        this.aiReceiptService = aiReceiptService;
+        this.meterRegistry = meterRegistry;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.pipelineMode = pipelineMode;
+        this.pipelineTimeout = pipelineTimeout;
+
+        if (openInView) {
+            // open-in-view가 켜져 있으면 요청이 끝날 때까지 커넥션이 반환되지 않아 sendMessage의 단계 분리 효과가 없음
+            logger.warn("spring.jpa.open-in-view is enabled; sendMessage keeps its JDBC connection during AI calls");
+        }
     }
 
-    public List<MessageResponse> getMessages(Long chatRoomId) {
+    /**
+     * 가장 최근 메시지 limit개를 시간순으로 조회 (기본 DEFAULT_PAGE_SIZE, 최대 MAX_PAGE_SIZE)
+     * 이전 메시지는 getMessagePage(before)로 이어서 조회
+     */
+    public List<MessageResponse> getMessages(Long chatRoomId, Integer limit) {
+        return getMessagePage(chatRoomId, null, null, null, limit).getMessages();
+    }
+
+    /**
+     * Keyset 방식으로 메시지 한 페이지를 조회
+     * - before: 해당 메시지보다 이전 메시지 (과거 방향)
+     * - after: 해당 메시지보다 이후 메시지 (최신 방향)
+     * - at: 지정 시각 이후 첫 메시지부터 (특정 시점으로 이동)
+     * - 아무것도 없으면 가장 최근 페이지
+     * 반환되는 메시지는 항상 시간순(오름차순)이며 nextCursor로 같은 방향의 다음 페이지를 조회
+     */
+    public MessagePageResponse getMessagePage(Long chatRoomId, Long before, Long after, LocalDateTime at, Integer limit) {
         User currentUser = userService.getCurrentUser();
-        logger.info("Retrieving messages for chatRoom: {} by user: {}", chatRoomId, currentUser.getLdap());
 
         // 채팅방 멤버십 확인
-        ChatRoomMember member = chatRoomMemberRepository
+        chatRoomMemberRepository
                 .findByChatRoomIdAndUserId(chatRoomId, currentUser.getId())
                 .orElseThrow(() -> new EntityNotFoundException("User is not a member of this chat room"));
 
-        logger.info("User {} is a member of chatRoom {}", currentUser.getLdap(), chatRoomId);
-
-        List<Message> messages = messageRepository.findByChatRoomIdOrderByTimestampAsc(chatRoomId);
-        logger.info("Retrieved {} messages for chatRoom: {}", messages.size(), chatRoomId);
-
-        if (!messages.isEmpty()) {
-            logger.info("First message: {} by {}", messages.get(0).getContent(), messages.get(0).getSender().getLdap());
-            logger.info("Last message: {} by {}", messages.get(messages.size() - 1).getContent(), messages.get(messages.size() - 1).getSender().getLdap());
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        // 다음 페이지 존재 여부 확인을 위해 한 건 더 조회
+        int fetchSize = pageSize + 1;
+
+        List<Message> messages;
+        boolean descending;
+        if (before != null) {
+            Message anchor = findAnchorMessage(chatRoomId, before);
+            messages = messageRepository.findPageBefore(chatRoomId, anchor.getTimestamp(), anchor.getId(), fetchSize);
+            descending = true;
+        } else if (after != null) {
+            Message anchor = findAnchorMessage(chatRoomId, after);
+            messages = messageRepository.findPageAfter(chatRoomId, anchor.getTimestamp(), anchor.getId(), fetchSize);
+            descending = false;
+        } else if (at != null) {
+            messages = messageRepository.findPageFrom(chatRoomId, at, fetchSize);
+            descending = false;
+        } else {
+            messages = messageRepository.findLatestPage(chatRoomId, fetchSize);
+            descending = true;
         }
 
-        // 상대방이 읽은 메시지 ID 가져오기
-        ChatRoom chatRoom = chatRoomRepository.findById(chatRoomId)
-                .orElseThrow(() -> new EntityNotFoundException("ChatRoom not found"));
-        User otherUser = getOtherUser(chatRoom, currentUser);
-        List<Long> readMessageIds = messageReadRepository.findReadMessageIdsByChatRoomAndUser(chatRoomId, otherUser.getId());
+        boolean hasMore = messages.size() > pageSize;
+        List<Message> page = new ArrayList<>(hasMore ? messages.subList(0, pageSize) : messages);
+        if (descending) {
+            Collections.reverse(page);
+        }
 
-        return messages.stream()
-                .map(message -> {
-                    MessageResponse response = toMessageResponse(message);
-                    boolean isMine = message.getSender().getId().equals(currentUser.getId());
-                    response.setIsMine(isMine);
+        Long nextCursor = null;
+        if (hasMore && !page.isEmpty()) {
+            // 과거 방향이면 가장 오래된 메시지, 최신 방향이면 가장 최근 메시지가 다음 커서
+            nextCursor = descending ? page.get(0).getId() : page.get(page.size() - 1).getId();
+        }
 
-                    // isRead 로직:
-                    // - 내가 보낸 메시지: 상대방이 읽었는지 확인
-                    // - 상대방이 보낸 메시지: 항상 true (조회 자체가 읽음을 의미)
-                    if (isMine) {
-                        response.setIsRead(readMessageIds.contains(message.getId()));
-                    } else {
-                        response.setIsRead(true);
-                    }
+        logger.info("Retrieved page of {} messages for chatRoom: {} (before: {}, after: {}, at: {}, hasMore: {})",
+                page.size(), chatRoomId, before, after, at, hasMore);
 
-                    return response;
-                })
-                .collect(Collectors.toList());
+        return new MessagePageResponse(toMessageResponses(chatRoomId, page, currentUser), nextCursor, hasMore);
     }
 
+    /**
+     * 메시지 전송: 조회 → AI 처리 → 저장 세 단계로 나누어 실행
+     *
+     * AI 호출은 수 초가 걸리므로 트랜잭션(DB 커넥션)을 잡지 않은 상태에서 실행하고,
+     * 조회와 저장만 각각 짧은 트랜잭션으로 처리하여 커넥션 풀 크기가 동시 전송 수를 제한하지 않도록 함
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public MessageResponse sendMessage(Long chatRoomId, SendMessageRequest request) {
+        Timer.Sample sendSample = Timer.start(meterRegistry);
         User currentUser = userService.getCurrentUser();
         logger.info("Sending message to chatRoom: {} from user: {} (LDAP: {})", chatRoomId, currentUser.getName(), currentUser.getLdap());
         logger.info("Message content: '{}'", request.getContent());
 
+        // 1. 조회: 멤버십 확인, 말투 설정 결정
+        SendContext context = readTransaction.execute(status -> loadSendContext(chatRoomId, request, currentUser));
+
+        // 2. AI 처리 (트랜잭션 없음, 이 범위의 AI 호출 토큰은 설정된 파이프라인 모드로 집계)
+        String originalContent = request.getContent();
+        AIPipelineResult aiResult = ScopedValue.where(AICompletionClient.PIPELINE_MODE, pipelineMode).get(() ->
+                applyAIPipeline(originalContent, request, context.formalityLevel(),
+                        context.relationship(), context.personaId(), currentUser.getId(), chatRoomId));
+
+        // 3. 저장
+        MessageResponse response = writeTransaction.execute(status ->
+                saveMessage(chatRoomId, request, currentUser, context.profileId(), originalContent, aiResult));
+
+        sendSample.stop(Timer.builder(SEND_LATENCY_METRIC)
+                .tag("pipeline", aiResult.pipeline())
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry));
+        return response;
+    }
+
+    private SendContext loadSendContext(Long chatRoomId, SendMessageRequest request, User currentUser) {
         ChatRoom chatRoom = chatRoomRepository.findById(chatRoomId)
                 .orElseThrow(() -> new EntityNotFoundException("ChatRoom not found with id: " + chatRoomId));
 
@@ -139,7 +244,7 @@ public class MessageService {
             }
         } else {
             // profileId가 없으면 chatRoomId로부터 자동 검색
-            targetProfile = findProfileByChatRoomId(currentUser.getId(), chatRoomId);
+            targetProfile = chatDataLoader.findLinkedProfile(currentUser.getId(), chatRoomId);
             if (targetProfile != null) {
                 logger.info("Auto-detected profile {} for chatRoom {}", targetProfile.getId(), chatRoomId);
             }
@@ -159,11 +264,246 @@ public class MessageService {
             logger.info("Using chatRoom formalityLevel: {}", formalityLevel);
         }
 
-        String originalContent = request.getContent();
+        return new SendContext(targetProfile != null ? targetProfile.getId() : null, formalityLevel, personaId, relationship);
+    }
+
+    private MessageResponse saveMessage(Long chatRoomId, SendMessageRequest request, User currentUser, Long profileId,
+                                        String originalContent, AIPipelineResult aiResult) {
+        ChatRoom chatRoom = chatRoomRepository.getReferenceById(chatRoomId);
+
+        Message message = new Message(chatRoom, currentUser, aiResult.finalContent());
+        message.setOriginalContent(originalContent);
+        message.setWasGuarded(aiResult.wasGuarded());
+        message.setIsEmoticon(Boolean.TRUE.equals(request.getIsEmoticon()));
+        message.setEmoticonId(request.getEmoticonId());
+
+        // profileId 저장 (상대방에게 어떤 프로필로 보냈는지 표시하기 위함)
+        if (profileId != null) {
+            message.setProfileId(profileId);
+            logger.info("Message sent with profileId: {}", profileId);
+        }
+
+        // 채팅방 순번 할당 (AI 처리 이후에 잠금을 잡아 같은 방의 동시 전송 대기 시간을 최소화)
+        chatRoomRepository.incrementLastMessageSeq(chatRoomId);
+        message.setSeq(chatRoomRepository.findLastMessageSeq(chatRoomId));
+
+        Message savedMessage = messageRepository.save(message);
+        logger.info("✓ Message saved successfully - ID: {}, Seq: {}, ChatRoom: {}, Sender: {} ({}), Content: '{}'",
+                savedMessage.getId(), savedMessage.getSeq(), chatRoomId, currentUser.getName(), currentUser.getLdap(), savedMessage.getContent());
+
+        userInboxService.recordMessage(savedMessage);
+
+        // 새 메시지는 리액션이 없고, 수신자 시점 아바타에 필요한 발신자 링크 프로필은 조회 단계에서 요청 캐시에 올라옴
+        Profile linkedProfile = chatDataLoader.findLinkedProfile(currentUser.getId(), chatRoomId);
+        Map<Long, Map<Long, Profile>> linkedProfiles = linkedProfile != null
+                ? Map.of(currentUser.getId(), Map.of(chatRoomId, linkedProfile))
+                : Map.of();
+
+        MessageResponse response = toMessageResponse(savedMessage, currentUser, Map.of(), linkedProfiles);
+        response.setIsMine(true); // Message is always from current user in sendMessage
+        response.setIsRead(false);
+
+        // 채팅방 멤버들에게 새 메시지 이벤트 전달 (커밋 후 전송)
+        // 보낸 사람은 전송 응답과 같은 내용을, 나머지 멤버는 수신자 시점의 응답을 받음
+        MessageResponse recipientPayload = toMessageResponse(savedMessage, null, Map.of(), linkedProfiles);
+        recipientPayload.setIsMine(false);
+        recipientPayload.setIsRead(true);
+        Long senderId = currentUser.getId();
+        eventPublisher.publishEvent(new ChatEvent(ChatEvent.MESSAGE_CREATED, chatRoomId,
+                chatRoomMemberRepository.findUserIdsByChatRoomId(chatRoomId), recipientPayload,
+                userId -> senderId.equals(userId) ? response : recipientPayload));
+        return response;
+    }
+
+    /**
+     * sendMessage 조회 단계 결과 (AI 처리 중에는 엔티티 대신 값만 유지)
+     */
+    private record SendContext(Long profileId, Double formalityLevel, String personaId, String relationship) {
+    }
+
+    /**
+     * 감정 검사/말투 변환 적용
+     *
+     * 미리보기 영수증으로 요청된 단계를 모두 채울 수 있으면 AI를 호출하지 않음 (applyReceipts).
+     * 그렇지 않고 둘 다 요청된 경우 ai.pipeline.mode에 따라
+     * - combined: 한 번의 AI 호출로 처리하고, 실패하면 기존 순차 경로(감정 검사 후 변환)로 대체
+     * - parallel: 감정 검사와 변환을 동시에 실행 (applyParallelPipeline)
+     * - sequential (기본값): 감정 검사 후 변환
+     */
+    private AIPipelineResult applyAIPipeline(String originalContent, SendMessageRequest request,
+                                             Double formalityLevel, String relationship, String personaId,
+                                             Long userId, Long chatRoomId) {
+        boolean useGuard = Boolean.TRUE.equals(request.getUseEmotionGuard());
+        boolean useTransform = Boolean.TRUE.equals(request.getUseTransform()) && formalityLevel != null;
+
+        AIPipelineResult fromReceipts = applyReceipts(originalContent, request, useGuard, useTransform,
+                formalityLevel, personaId, userId, chatRoomId);
+        if (fromReceipts != null) {
+            return fromReceipts;
+        }
+
+        if (useGuard && useTransform && PIPELINE_COMBINED.equals(pipelineMode)) {
+            logger.info("Applying combined emotion guard + transformation with formalityLevel: {}, personaId: {}, relationship: {}",
+                    formalityLevel, personaId, relationship);
+            GuardedTransformResponse combined = aiService.guardAndTransform(originalContent, formalityLevel, relationship, personaId);
+            if (combined != null) {
+                boolean wasGuarded = Boolean.TRUE.equals(combined.getIsAggressive());
+                logger.info("Combined pipeline - Original: '{}', Final: '{}', Guarded: {}",
+                        originalContent, combined.getTransformedText(), wasGuarded);
+                return new AIPipelineResult(combined.getTransformedText(), wasGuarded, PIPELINE_COMBINED);
+            }
+            logger.warn("Combined pipeline failed, falling back to sequential guard + transform");
+            recordFallback(PIPELINE_COMBINED, "failed");
+            AIPipelineResult fallback = applySequentialPipeline(originalContent, true, true, formalityLevel, relationship, personaId);
+            return new AIPipelineResult(fallback.finalContent(), fallback.wasGuarded(), "fallback");
+        }
+
+        if (useGuard && useTransform && PIPELINE_PARALLEL.equals(pipelineMode)) {
+            return applyParallelPipeline(originalContent, formalityLevel, relationship, personaId);
+        }
+
+        return applySequentialPipeline(originalContent, useGuard, useTransform, formalityLevel, relationship, personaId);
+    }
+
+    /**
+     * 미리보기(/ai/transform, /ai/emotion-guard)에서 받은 영수증으로 요청된 단계를 모두 채울 수 있으면 AI 호출 없이 결과를 사용
+     *
+     * @return 영수증으로 처리한 결과, 하나라도 없거나 내용/말투/채팅방이 다르면 null
+     */
+    private AIPipelineResult applyReceipts(String originalContent, SendMessageRequest request,
+                                           boolean useGuard, boolean useTransform, Double formalityLevel,
+                                           String personaId, Long userId, Long chatRoomId) {
+        if (!useGuard && !useTransform) {
+            return null;
+        }
+
         String finalContent = originalContent;
         boolean wasGuarded = false;
 
-        if (Boolean.TRUE.equals(request.getUseEmotionGuard())) {
+        if (useGuard) {
+            AIReceiptService.Receipt guardReceipt = aiReceiptService.verify(request.getGuardReceipt(),
+                    AIReceiptService.KIND_GUARD, userId, chatRoomId, aiService.resolveGuardPersona(personaId), originalContent);
+            if (guardReceipt == null) {
+                return null;
+            }
+            if (Boolean.TRUE.equals(guardReceipt.aggressive())) {
+                wasGuarded = true;
+                if (guardReceipt.result() != null) {
+                    finalContent = guardReceipt.result();
+                }
+            }
+        }
+
+        if (useTransform) {
+            AIReceiptService.Receipt transformReceipt = aiReceiptService.verify(request.getTransformReceipt(),
+                    AIReceiptService.KIND_TRANSFORM, userId, chatRoomId,
+                    aiService.resolveTransformPersona(personaId, formalityLevel), finalContent);
+            if (transformReceipt == null || transformReceipt.result() == null) {
+                return null;
+            }
+            finalContent = transformReceipt.result();
+        }
+
+        logger.info("Reused AI preview results from receipts - Original: '{}', Final: '{}', Guarded: {}",
+                originalContent, finalContent, wasGuarded);
+        return new AIPipelineResult(finalContent, wasGuarded, "receipt");
+    }
+
+    /**
+     * 감정 검사와 원문 변환(추측 실행)을 동시에 실행
+     *
+     * 감정 검사가 문장을 바꾸지 않으면(대부분의 경우) 추측 변환 결과를 그대로 사용하여 지연 시간이 두 호출의 합이 아닌 최대값이 됨.
+     * 문장을 바꾸면 바뀐 문장으로 변환만 다시 실행함. 전체 작업은 ai.pipeline.timeout 안에 끝나야 하며, 넘으면 진행 중인 호출을 모두 취소하고
+     * - 감정 검사가 끝났으면 검사 결과만 적용하여 변환 없이 보냄
+     * - 감정 검사가 끝나지 않았으면 AIPipelineTimeoutException으로 전송을 거절함 (검사하지 않은 원문을 보내지 않고, 제한 시간을 넘겨 다시 호출하지도 않음)
+     * 감정 검사 호출 자체가 실패한 경우는 다른 모드와 같이 AIService.checkEmotionGuard의 기본값(공격적이지 않음)을 따름
+     */
+    private AIPipelineResult applyParallelPipeline(String originalContent, Double formalityLevel,
+                                                   String relationship, String personaId) {
+        Instant deadline = Instant.now().plus(pipelineTimeout);
+        logger.info("Applying parallel emotion guard + speculative transformation with formalityLevel: {}, personaId: {}, relationship: {}",
+                formalityLevel, personaId, relationship);
+
+        // 제한 시간을 넘긴 뒤에도 이미 끝난 감정 검사 결과를 쓸 수 있도록 따로 보관
+        AtomicReference<EmotionGuardDetailResponse> guardResult = new AtomicReference<>();
+        try (var scope = new StructuredTaskScope.ShutdownOnFailure()) {
+            Subtask<EmotionGuardDetailResponse> guardTask = scope.fork(() -> {
+                EmotionGuardDetailResponse response = aiService.checkEmotionGuard(originalContent, personaId);
+                guardResult.set(response);
+                return response;
+            });
+            Subtask<TransformTextResponse> speculativeTask =
+                    scope.fork(() -> aiService.transformText(originalContent, formalityLevel, relationship, personaId));
+            scope.joinUntil(deadline);
+            scope.throwIfFailed();
+
+            EmotionGuardDetailResponse guardResponse = guardTask.get();
+            boolean wasGuarded = Boolean.TRUE.equals(guardResponse.getIsAggressive());
+            String suggestedText = guardResponse.getSuggestedText();
+
+            if (!wasGuarded || suggestedText == null) {
+                String finalContent = speculativeTask.get().getTransformedText();
+                logger.info("Parallel pipeline used speculative transform - Original: '{}', Transformed: '{}'",
+                        originalContent, finalContent);
+                return new AIPipelineResult(finalContent, wasGuarded, PIPELINE_PARALLEL);
+            }
+
+            // 감정 검사가 문장을 바꿨으므로 추측 변환 결과는 버리고 바뀐 문장으로 다시 변환
+            logger.info("Emotion guarded - Original: '{}', Modified: '{}', re-running transformation", originalContent, suggestedText);
+            try {
+                String finalContent = transformBefore(suggestedText, formalityLevel, relationship, personaId, deadline);
+                return new AIPipelineResult(finalContent, true, PIPELINE_PARALLEL);
+            } catch (TimeoutException e) {
+                // 감정 검사 결과는 이미 있으므로 순화된 문장을 변환 없이 보냄
+                logger.warn("Parallel AI pipeline exceeded {} while re-transforming, sending guarded text without transformation",
+                        pipelineTimeout);
+                recordFallback(PIPELINE_PARALLEL, "timeout");
+                return new AIPipelineResult(suggestedText, true, "timeout");
+            }
+
+        } catch (TimeoutException e) {
+            recordFallback(PIPELINE_PARALLEL, "timeout");
+            EmotionGuardDetailResponse guardResponse = guardResult.get();
+            if (guardResponse == null) {
+                logger.warn("Emotion guard did not finish within {} for content '{}', rejecting send", pipelineTimeout, originalContent);
+                throw new AIPipelineTimeoutException("Emotion guard did not finish within " + pipelineTimeout);
+            }
+
+            // 감정 검사는 끝났고 변환만 늦은 경우: 검사 결과만 적용하고 변환 없이 보냄
+            boolean wasGuarded = Boolean.TRUE.equals(guardResponse.getIsAggressive());
+            String finalContent = wasGuarded && guardResponse.getSuggestedText() != null
+                    ? guardResponse.getSuggestedText() : originalContent;
+            logger.warn("Parallel AI pipeline exceeded {}, sending guard result without transformation (guarded: {})",
+                    pipelineTimeout, wasGuarded);
+            return new AIPipelineResult(finalContent, wasGuarded, "timeout");
+        } catch (ExecutionException e) {
+            logger.warn("Parallel AI pipeline failed, falling back to sequential guard + transform", e.getCause());
+            recordFallback(PIPELINE_PARALLEL, "failed");
+            AIPipelineResult fallback = applySequentialPipeline(originalContent, true, true, formalityLevel, relationship, personaId);
+            return new AIPipelineResult(fallback.finalContent(), fallback.wasGuarded(), "fallback");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while applying AI pipeline", e);
+        }
+    }
+
+    private String transformBefore(String text, Double formalityLevel, String relationship, String personaId, Instant deadline)
+            throws InterruptedException, ExecutionException, TimeoutException {
+        try (var scope = new StructuredTaskScope.ShutdownOnFailure()) {
+            Subtask<TransformTextResponse> transformTask =
+                    scope.fork(() -> aiService.transformText(text, formalityLevel, relationship, personaId));
+            scope.joinUntil(deadline);
+            scope.throwIfFailed();
+            return transformTask.get().getTransformedText();
+        }
+    }
+
+    private AIPipelineResult applySequentialPipeline(String originalContent, boolean useGuard, boolean useTransform,
+                                                     Double formalityLevel, String relationship, String personaId) {
+        String finalContent = originalContent;
+        boolean wasGuarded = false;
+
+        if (useGuard) {
             logger.info("Applying emotion guard...");
             EmotionGuardDetailResponse guardResponse = aiService.checkEmotionGuard(originalContent, personaId);
             if (Boolean.TRUE.equals(guardResponse.getIsAggressive())) {
@@ -175,7 +515,7 @@ public class MessageService {
             }
         }
 
-        if (Boolean.TRUE.equals(request.getUseTransform()) && formalityLevel != null) {
+        if (useTransform) {
             logger.info("Applying text transformation with formalityLevel: {}, personaId: {}, relationship: {}",
                     formalityLevel, personaId, relationship);
             TransformTextResponse transformResponse = aiService.transformText(finalContent, formalityLevel, relationship, personaId);
@@ -184,25 +524,22 @@ public class MessageService {
                     originalContent, finalContent, transformResponse.getAppliedPersona());
         }
 
-        Message message = new Message(chatRoom, currentUser, finalContent);
-        message.setOriginalContent(originalContent);
-        message.setWasGuarded(wasGuarded);
-        message.setIsEmoticon(Boolean.TRUE.equals(request.getIsEmoticon()));
-        message.setEmoticonId(request.getEmoticonId());
-
-        // profileId 저장 (상대방에게 어떤 프로필로 보냈는지 표시하기 위함)
-        if (targetProfile != null) {
-            message.setProfileId(targetProfile.getId());
-            logger.info("Message sent with profileId: {}", targetProfile.getId());
-        }
+        String pipeline = useGuard || useTransform ? PIPELINE_SEQUENTIAL : "none";
+        return new AIPipelineResult(finalContent, wasGuarded, pipeline);
+    }
 
-        Message savedMessage = messageRepository.save(message);
-        logger.info("✓ Message saved successfully - ID: {}, ChatRoom: {}, Sender: {} ({}), Content: '{}'",
-                savedMessage.getId(), chatRoomId, currentUser.getName(), currentUser.getLdap(), savedMessage.getContent());
+    private record AIPipelineResult(String finalContent, boolean wasGuarded, String pipeline) {
+    }
 
-        MessageResponse response = toMessageResponse(savedMessage);
-        response.setIsMine(true); // Message is always from current user in sendMessage
-        return response;
+    /**
+     * combined / parallel 모드가 실패하거나 시간을 넘겨 다른 경로로 처리된 횟수
+     */
+    private void recordFallback(String mode, String reason) {
+        Counter.builder(PIPELINE_FALLBACK_METRIC)
+                .tag("mode", mode)
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment();
     }
 
     public MessageResponse addReaction(Long messageId, String emoji) {
@@ -215,35 +552,134 @@ public class MessageService {
 
         logger.info("Reaction added - Message: {}, User: {}, Emoji: {}", messageId, currentUser.getId(), emoji);
 
-        return toMessageResponse(message);
+        Long chatRoomId = message.getChatRoom().getId();
+        Long senderId = message.getSender().getId();
+
+        // 이벤트와 응답에서 같은 리액션/프로필 조회 결과를 사용
+        Map<Long, List<Reaction>> reactionsByMessage = chatDataLoader.loadReactions(List.of(messageId));
+        Map<Long, Map<Long, Profile>> linkedProfiles = chatDataLoader.loadLinkedProfiles(
+                List.of(senderId), List.of(chatRoomId));
+
+        MessageResponse eventPayload = toMessageResponse(message, null, reactionsByMessage, linkedProfiles);
+        eventPublisher.publishEvent(new ChatEvent(ChatEvent.REACTION_ADDED, chatRoomId,
+                chatRoomMemberRepository.findUserIdsByChatRoomId(chatRoomId), eventPayload,
+                userId -> {
+                    MessageResponse payload = new MessageResponse(eventPayload);
+                    payload.setIsMine(senderId.equals(userId));
+                    return payload;
+                }));
+
+        return toMessageResponse(message, currentUser, reactionsByMessage, linkedProfiles);
     }
 
     public List<MessageResponse> pollNewMessages(Long chatRoomId, LocalDateTime since) {
         User currentUser = userService.getCurrentUser();
+
+        // 채팅방 멤버십 확인
+        chatRoomMemberRepository
+                .findByChatRoomIdAndUserId(chatRoomId, currentUser.getId())
+                .orElseThrow(() -> new EntityNotFoundException("User is not a member of this chat room"));
+
         List<Message> newMessages = messageRepository.findNewMessages(chatRoomId, since);
+        return toMessageResponses(chatRoomId, newMessages, currentUser);
+    }
 
-        // 상대방이 읽은 메시지 ID 가져오기
-        ChatRoom chatRoom = chatRoomRepository.findById(chatRoomId)
-                .orElseThrow(() -> new EntityNotFoundException("ChatRoom not found"));
-        User otherUser = getOtherUser(chatRoom, currentUser);
-        List<Long> readMessageIds = messageReadRepository.findReadMessageIdsByChatRoomAndUser(chatRoomId, otherUser.getId());
+    /**
+     * afterSeq 이후의 메시지를 순번 순서로 조회 (한 번에 최대 MAX_PAGE_SIZE건, 이어서 마지막 seq로 다시 조회)
+     */
+    public List<MessageResponse> pollNewMessages(Long chatRoomId, Long afterSeq) {
+        User currentUser = userService.getCurrentUser();
 
-        return newMessages.stream()
-                .map(message -> {
-                    MessageResponse response = toMessageResponse(message);
-                    boolean isMine = message.getSender().getId().equals(currentUser.getId());
-                    response.setIsMine(isMine);
+        // 채팅방 멤버십 확인
+        chatRoomMemberRepository
+                .findByChatRoomIdAndUserId(chatRoomId, currentUser.getId())
+                .orElseThrow(() -> new EntityNotFoundException("User is not a member of this chat room"));
 
-                    // isRead 로직: 내가 보낸 메시지는 상대방이 읽었는지 확인, 상대방 메시지는 항상 true
-                    if (isMine) {
-                        response.setIsRead(readMessageIds.contains(message.getId()));
-                    } else {
-                        response.setIsRead(true);
-                    }
+        List<Message> newMessages = messageRepository.findAfterSeq(chatRoomId, Math.max(afterSeq, 0L), MAX_PAGE_SIZE);
+        return toMessageResponses(chatRoomId, newMessages, currentUser);
+    }
 
-                    return response;
-                })
+    /**
+     * 여러 채팅방의 새 메시지를 한 번에 동기화 (chatRoomId -> 마지막으로 받은 seq)
+     * 변경이 있는 채팅방만 반환하며, 변경이 없으면 메시지 조회 한 번으로 끝남
+     */
+    public List<ChatRoomUpdateResponse> syncChatRooms(Map<Long, Long> cursors) {
+        User currentUser = userService.getCurrentUser();
+
+        if (cursors == null || cursors.isEmpty()) {
+            return new ArrayList<>();
+        }
+        if (cursors.size() > MAX_SYNC_ROOMS) {
+            throw new IllegalArgumentException("Cannot sync more than " + MAX_SYNC_ROOMS + " chat rooms at once");
+        }
+
+        // 채팅방별로 개수를 제한하고 하나 더 조회하여 잘렸는지 확인:
+        // hasMore인 방은 클라이언트가 마지막 seq로 다음 sync(또는 poll)에서 이어받음
+        List<Message> newMessages = messageRepository.findAfterCursors(
+                currentUser.getId(), cursors, MAX_SYNC_MESSAGES_PER_ROOM + 1);
+        if (newMessages.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Map<Long, List<Message>> messagesByRoom = newMessages.stream()
+                .collect(Collectors.groupingBy(m -> m.getChatRoom().getId(), LinkedHashMap::new, Collectors.toList()));
+        Map<Long, Boolean> hasMoreByRoom = new HashMap<>();
+        messagesByRoom.replaceAll((chatRoomId, messages) -> {
+            boolean hasMore = messages.size() > MAX_SYNC_MESSAGES_PER_ROOM;
+            hasMoreByRoom.put(chatRoomId, hasMore);
+            return hasMore ? messages.subList(0, MAX_SYNC_MESSAGES_PER_ROOM) : messages;
+        });
+        List<Message> returnedMessages = messagesByRoom.values().stream()
+                .flatMap(List::stream)
                 .collect(Collectors.toList());
+
+        // 안 읽은 수, 멤버(읽음 watermark), 리액션, 발신자 프로필은 채팅방 수와 관계없이 한 번씩만 조회
+        Map<Long, Long> unreadCounts = chatDataLoader.loadUnreadCounts(currentUser.getId(), messagesByRoom.keySet());
+        Map<Long, List<ChatRoomMember>> membersByRoom = chatDataLoader.loadMembers(messagesByRoom.keySet());
+        Map<Long, List<Reaction>> reactionsByMessage = chatDataLoader.loadReactions(
+                returnedMessages.stream().map(Message::getId).collect(Collectors.toList()));
+        Map<Long, Map<Long, Profile>> linkedProfiles = chatDataLoader.loadLinkedProfiles(
+                returnedMessages.stream().map(message -> message.getSender().getId()).collect(Collectors.toSet()),
+                messagesByRoom.keySet());
+
+        List<ChatRoomUpdateResponse> updates = new ArrayList<>();
+        messagesByRoom.forEach((chatRoomId, messages) -> {
+            long otherLastReadMessageId = getOtherLastReadMessageId(
+                    membersByRoom.getOrDefault(chatRoomId, List.of()), currentUser);
+            updates.add(new ChatRoomUpdateResponse(
+                    chatRoomId,
+                    toMessageResponses(messages, currentUser, otherLastReadMessageId, reactionsByMessage, linkedProfiles),
+                    unreadCounts.getOrDefault(chatRoomId, 0L),
+                    hasMoreByRoom.get(chatRoomId)));
+        });
+
+        logger.info("Synced {} chat rooms for user {}: {} rooms changed, {} new messages",
+                cursors.size(), currentUser.getLdap(), updates.size(), returnedMessages.size());
+        return updates;
+    }
+
+    /**
+     * 빈 구간 복구용: 클라이언트가 감지한 누락 순번 범위 [fromSeq, toSeq]의 메시지만 조회
+     */
+    public List<MessageResponse> getMessagesBySeqRange(Long chatRoomId, Long fromSeq, Long toSeq) {
+        User currentUser = userService.getCurrentUser();
+
+        if (fromSeq < 1 || toSeq < fromSeq) {
+            throw new IllegalArgumentException("Invalid seq range: " + fromSeq + " - " + toSeq);
+        }
+        if (toSeq - fromSeq + 1 > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Seq range must not exceed " + MAX_PAGE_SIZE + " messages");
+        }
+
+        // 채팅방 멤버십 확인
+        chatRoomMemberRepository
+                .findByChatRoomIdAndUserId(chatRoomId, currentUser.getId())
+                .orElseThrow(() -> new EntityNotFoundException("User is not a member of this chat room"));
+
+        List<Message> messages = messageRepository.findSeqRange(chatRoomId, fromSeq, toSeq);
+        logger.info("Retrieved {} messages for chatRoom: {} in seq range {} - {}",
+                messages.size(), chatRoomId, fromSeq, toSeq);
+        return toMessageResponses(chatRoomId, messages, currentUser);
     }
 
     public void markMessagesAsRead(Long chatRoomId) {
@@ -255,39 +691,102 @@ public class MessageService {
                 .findByChatRoomIdAndUserId(chatRoomId, currentUser.getId())
                 .orElseThrow(() -> new EntityNotFoundException("User is not a member of this chat room"));
 
-        // 해당 채팅방의 모든 메시지 가져오기
-        List<Message> messages = messageRepository.findByChatRoomIdOrderByTimestampAsc(chatRoomId);
-
-        // 현재 사용자가 아직 읽지 않은 메시지를 읽음으로 표시
-        for (Message message : messages) {
-            // 자기 자신이 보낸 메시지는 제외
-            if (!message.getSender().getId().equals(currentUser.getId())) {
-                // 이미 읽음 표시가 되어 있는지 확인
-                if (!messageReadRepository.findByMessageIdAndUserId(message.getId(), currentUser.getId()).isPresent()) {
-                    MessageRead messageRead = new MessageRead(message, currentUser);
-                    messageReadRepository.save(messageRead);
-                }
-            }
+        // 읽음 상태는 멤버별 watermark(lastReadMessageId)로 관리: 최신 메시지까지 한 번의 UPDATE로 전진
+        int updated = chatRoomMemberRepository.markLatestAsRead(currentUser.getId(), List.of(chatRoomId));
+        logger.info("Marked messages as read in chatRoom: {} (advanced: {})", chatRoomId, updated > 0);
+
+        if (updated > 0) {
+            userInboxService.refreshUnreadCounts(currentUser.getId(), List.of(chatRoomId));
+            Long lastReadMessageId = chatRoomMemberRepository.findLastReadMessageId(chatRoomId, currentUser.getId());
+            eventPublisher.publishEvent(new ChatEvent(ChatEvent.READ_UPDATED, chatRoomId,
+                    chatRoomMemberRepository.findUserIdsByChatRoomId(chatRoomId),
+                    new ReadReceiptResponse(chatRoomId, currentUser.getId(), lastReadMessageId)));
         }
+    }
+
+    /**
+     * 메시지 목록을 응답으로 변환하면서 isMine / isRead를 설정
+     */
+    private List<MessageResponse> toMessageResponses(Long chatRoomId, List<Message> messages, User currentUser) {
+        if (messages.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        // 상대방의 읽음 watermark: 이 ID 이하의 메시지는 모두 읽은 것으로 간주
+        long otherLastReadMessageId = getOtherLastReadMessageId(chatRoomId, currentUser);
+
+        // 리액션과 발신자 프로필은 메시지 수와 관계없이 한 번씩만 조회
+        Map<Long, List<Reaction>> reactionsByMessage = chatDataLoader.loadReactions(
+                messages.stream().map(Message::getId).collect(Collectors.toList()));
+        Map<Long, Map<Long, Profile>> linkedProfiles = chatDataLoader.loadLinkedProfiles(
+                messages.stream().map(message -> message.getSender().getId()).collect(Collectors.toSet()),
+                List.of(chatRoomId));
+
+        return toMessageResponses(messages, currentUser, otherLastReadMessageId, reactionsByMessage, linkedProfiles);
+    }
+
+    /**
+     * 미리 조회한 연관 데이터로 메시지 목록을 변환 (여러 채팅방을 한 번에 변환할 때 사용)
+     *
+     * @param otherLastReadMessageId 상대방의 읽음 watermark
+     */
+    private List<MessageResponse> toMessageResponses(List<Message> messages, User currentUser, long otherLastReadMessageId,
+                                                     Map<Long, List<Reaction>> reactionsByMessage,
+                                                     Map<Long, Map<Long, Profile>> linkedProfiles) {
+        return messages.stream()
+                .map(message -> {
+                    MessageResponse response = toMessageResponse(message, currentUser, reactionsByMessage, linkedProfiles);
+                    boolean isMine = message.getSender().getId().equals(currentUser.getId());
+                    response.setIsMine(isMine);
+
+                    // isRead 로직:
+                    // - 내가 보낸 메시지: 상대방이 읽었는지 확인
+                    // - 상대방이 보낸 메시지: 항상 true (조회 자체가 읽음을 의미)
+                    if (isMine) {
+                        response.setIsRead(message.getId() <= otherLastReadMessageId);
+                    } else {
+                        response.setIsRead(true);
+                    }
+
+                    return response;
+                })
+                .collect(Collectors.toList());
+    }
 
-        logger.info("Marked {} messages as read in chatRoom: {}", messages.size(), chatRoomId);
+    /**
+     * 페이지 커서로 사용된 메시지를 조회 (같은 채팅방의 메시지여야 함)
+     */
+    private Message findAnchorMessage(Long chatRoomId, Long messageId) {
+        Message anchor = messageRepository.findById(messageId)
+                .orElseThrow(() -> new EntityNotFoundException("Message not found with id: " + messageId));
+        if (!anchor.getChatRoom().getId().equals(chatRoomId)) {
+            throw new IllegalArgumentException("Cursor message does not belong to chat room: " + chatRoomId);
+        }
+        return anchor;
     }
 
-    private MessageResponse toMessageResponse(Message message) {
+    /**
+     * @param viewer 메시지를 보는 사용자 (null이면 발신자가 아닌 수신자 시점으로 변환)
+     * @param reactionsByMessage 메시지별 리액션 (ChatDataLoader.loadReactions)
+     * @param linkedProfiles 발신자별 채팅방 링크 프로필 (ChatDataLoader.loadLinkedProfiles)
+     */
+    private MessageResponse toMessageResponse(Message message, User viewer,
+                                              Map<Long, List<Reaction>> reactionsByMessage,
+                                              Map<Long, Map<Long, Profile>> linkedProfiles) {
         MessageResponse response = new MessageResponse();
         response.setId(message.getId());
+        response.setSeq(message.getSeq());
 
         User sender = message.getSender();
-        User currentUser = userService.getCurrentUser();
 
         // 아바타 결정:
         // - 내가 보낸 메시지면 User의 기본 아바타
         // - 상대방이 보낸 메시지면 상대방이 이 채팅방을 링크한 프로필의 아바타
         String avatar = sender.getAvatar();
 
-        if (!sender.getId().equals(currentUser.getId())) {
+        if (viewer == null || !sender.getId().equals(viewer.getId())) {
             // 상대방이 보낸 메시지인 경우, 상대방이 이 채팅방을 어떤 프로필에 링크했는지 확인
-            Profile linkedProfile = findProfileByChatRoomId(sender.getId(), message.getChatRoom().getId());
+            Profile linkedProfile = linkedProfiles.getOrDefault(sender.getId(), Map.of()).get(message.getChatRoom().getId());
             if (linkedProfile != null && linkedProfile.getAvatar() != null) {
                 avatar = linkedProfile.getAvatar();
                 logger.debug("Using profile avatar for message {} (profileId: {}, profileName: {})",
@@ -310,7 +809,7 @@ public class MessageService {
         response.setEmoticonId(message.getEmoticonId());
         response.setTimestamp(message.getTimestamp());
 
-        List<Reaction> reactions = reactionRepository.findByMessageId(message.getId());
+        List<Reaction> reactions = reactionsByMessage.getOrDefault(message.getId(), List.of());
         response.setReactions(reactions.stream()
                 .map(this::toReactionResponse)
                 .collect(Collectors.toList()));
@@ -380,38 +879,18 @@ public class MessageService {
     }
 
     /**
-     * 채팅방에서 상대방 유저를 가져옴
+     * 채팅방 상대방의 읽음 watermark
+     * 상대방이 없으면(혼자 남은 방 등) 0을 반환하여 내 메시지를 모두 읽지 않음으로 표시
      */
-    private User getOtherUser(ChatRoom chatRoom, User currentUser) {
-        List<ChatRoomMember> members = chatRoomMemberRepository.findByChatRoomId(chatRoom.getId());
-        return members.stream()
-                .map(ChatRoomMember::getUser)
-                .filter(user -> !user.getId().equals(currentUser.getId()))
-                .findFirst()
-                .orElseThrow(() -> new EntityNotFoundException("Other user not found in chat room"));
+    private long getOtherLastReadMessageId(Long chatRoomId, User currentUser) {
+        return getOtherLastReadMessageId(chatRoomMemberRepository.findByChatRoomId(chatRoomId), currentUser);
     }
 
-    /**
-     * 특정 사용자가 특정 채팅방을 linkedChatRoomIds에 포함한 프로필을 찾음
-     */
-    private Profile findProfileByChatRoomId(Long userId, Long chatRoomId) {
-        try {
-            ObjectMapper mapper = new ObjectMapper();
-            List<Profile> profiles = profileRepository.findByUserId(userId);
-            for (Profile profile : profiles) {
-                if (profile.getLinkedChatRoomIds() != null && !profile.getLinkedChatRoomIds().trim().isEmpty()) {
-                    List<Long> chatRoomIds = mapper.readValue(
-                            profile.getLinkedChatRoomIds(),
-                            new TypeReference<List<Long>>() {}
-                    );
-                    if (chatRoomIds.contains(chatRoomId)) {
-                        return profile;
-                    }
-                }
-            }
-        } catch (Exception e) {
-            logger.error("Failed to find profile by chatRoomId: {}", chatRoomId, e);
-        }
-        return null;
+    private long getOtherLastReadMessageId(List<ChatRoomMember> members, User currentUser) {
+        return members.stream()
+                .filter(member -> !member.getUser().getId().equals(currentUser.getId()))
+                .findFirst()
+                .map(ChatRoomMember::getLastReadMessageId)
+                .orElse(0L);
     }
 }
@@ -1,12 +1,11 @@
 package com.example.demo.service;
 
-import com.openai.client.OpenAIClient;
-import com.openai.client.okhttp.OpenAIOkHttpClient;
+import com.example.demo.exception.AIUnavailableException;
 import com.openai.models.ChatModel;
-import com.openai.models.chat.completions.ChatCompletion;
 import com.openai.models.chat.completions.ChatCompletionCreateParams;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
@@ -15,17 +14,16 @@ public class OpenAIService {
 
     private static final Logger logger = LoggerFactory.getLogger(OpenAIService.class);
 
-    private final OpenAIClient client;
+    private final AICompletionClient aiCompletionClient;
     private final String model;
 
-    public OpenAIService(@Value("${openai.api.key}") String apiKey,
+    @Autowired
+    public OpenAIService(AICompletionClient aiCompletionClient,
                         @Value("${openai.model}") String model) {
         this.model = model;
-        this.client = OpenAIOkHttpClient.builder()
-                .apiKey(apiKey)
-                .build();
+        this.aiCompletionClient = aiCompletionClient;
 
-        logger.info("OpenAI client initialized with model: {}", model);
+        logger.info("OpenAI service initialized with model: {}", model);
     }
 
     public String convertToPoliteText(String originalText) {
@@ -47,17 +45,16 @@ public class OpenAIService {
                     .maxCompletionTokens(500L)
                     .build();
 
-            ChatCompletion chatCompletion = client.chat().completions().create(params);
-
-            String politeText = chatCompletion.choices().stream()
-                    .findFirst()
-                    .flatMap(choice -> choice.message().content())
-                    .orElse(originalText);
+            String completion = aiCompletionClient.complete("polite", params);
+            String politeText = completion != null ? completion : originalText;
 
             logger.info("Text converted successfully. Original: '{}', Polite: '{}'", originalText, politeText);
 
             return politeText;
 
+        } catch (AIUnavailableException e) {
+            logger.warn("Failed to convert text to polite version: {}", e.getMessage());
+            return originalText;
         } catch (Exception e) {
             logger.error("Failed to convert text to polite version", e);
             return originalText;
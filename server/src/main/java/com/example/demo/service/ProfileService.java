@@ -6,10 +6,9 @@ import com.example.demo.entity.Profile;
 import com.example.demo.entity.User;
 import com.example.demo.exception.EntityNotFoundException;
 import com.example.demo.exception.InvalidImageFormatException;
+import com.example.demo.repository.ChatRoomMemberRepository;
+import com.example.demo.repository.ProfileChatRoomRepository;
 import com.example.demo.repository.ProfileRepository;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -18,7 +17,11 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -30,15 +33,21 @@ public class ProfileService {
 
     private final ProfileRepository profileRepository;
     private final UserService userService;
-    private final ObjectMapper objectMapper;
+    private final ProfileChatRoomRepository profileChatRoomRepository;
+    private final ChatRoomMemberRepository chatRoomMemberRepository;
+    private final UserInboxService userInboxService;
 
     @Autowired
     public ProfileService(ProfileRepository profileRepository,
                           UserService userService,
-                          ObjectMapper objectMapper) {
+                          ProfileChatRoomRepository profileChatRoomRepository,
+                          ChatRoomMemberRepository chatRoomMemberRepository,
+                          UserInboxService userInboxService) {
         this.profileRepository = profileRepository;
         this.userService = userService;
-        this.objectMapper = objectMapper;
+        this.profileChatRoomRepository = profileChatRoomRepository;
+        this.chatRoomMemberRepository = chatRoomMemberRepository;
+        this.userInboxService = userInboxService;
     }
 
     public List<ProfileResponse> getUserProfiles() {
@@ -64,8 +73,15 @@ public class ProfileService {
             return 0;
         });
 
+        // 프로필별 할당 채팅방을 한 번에 조회
+        Map<Long, List<Long>> chatRoomIdsByProfile = new HashMap<>();
+        List<Long> profileIds = profiles.stream().map(Profile::getId).collect(Collectors.toList());
+        for (Object[] row : profileChatRoomRepository.findChatRoomIdsByProfileIdIn(profileIds)) {
+            chatRoomIdsByProfile.computeIfAbsent((Long) row[0], key -> new ArrayList<>()).add((Long) row[1]);
+        }
+
         return profiles.stream()
-                .map(this::toProfileResponse)
+                .map(profile -> toProfileResponse(profile, chatRoomIdsByProfile.getOrDefault(profile.getId(), List.of())))
                 .collect(Collectors.toList());
     }
 
@@ -74,7 +90,7 @@ public class ProfileService {
         defaultProfile.setDescription("기본 프로필");
         defaultProfile.setDefaultPersona("casual-polite");
         defaultProfile.setIsDefault(true);
-        defaultProfile.setLinkedChatRoomIds(null);  // 기본 프로필은 다른 프로필에 속하지 않은 모든 채팅방 표시
+        // 기본 프로필은 다른 프로필에 할당되지 않은 모든 채팅방 표시
 
         // 기본 프로필 아바타 설정 (사용자 이름 첫 글자)
         String avatarName = user.getName().substring(0, 1).toUpperCase();
@@ -114,33 +130,20 @@ public class ProfileService {
         profile.setDefaultPersona(request.getDefaultPersona());
         profile.setIsDefault(false);
 
+        Profile savedProfile = profileRepository.save(profile);
+
         if (request.getAssignedFriends() != null) {
-            try {
-                // Convert String IDs to Long IDs for storage
-                List<Long> linkedChatRoomIds = request.getAssignedFriends().stream()
-                        .map(Long::valueOf)
-                        .collect(Collectors.toList());
-                String linkedChatRoomIdsJson = objectMapper.writeValueAsString(linkedChatRoomIds);
-                profile.setLinkedChatRoomIds(linkedChatRoomIdsJson);
-
-                // 새로 생성된 프로필에 채팅방을 할당하기 전에 저장
-                Profile savedProfile = profileRepository.save(profile);
-
-                // 다른 프로필에서 이 채팅방들을 제거 (중복 방지)
-                removeFromOtherProfiles(currentUser.getId(), savedProfile.getId(), linkedChatRoomIds);
-
-                logger.info("Profile created - ID: {}, Name: {}, User: {}, Assigned {} chat rooms",
-                           savedProfile.getId(), savedProfile.getName(), currentUser.getId(), linkedChatRoomIds.size());
-
-                return toProfileResponse(savedProfile);
-            } catch (JsonProcessingException e) {
-                logger.error("Failed to serialize assignedFriends", e);
-            }
-        }
+            List<Long> chatRoomIds = toChatRoomIds(request.getAssignedFriends());
+            // 다른 프로필에 할당되어 있던 채팅방은 이 프로필로 옮겨짐
+            assignChatRooms(currentUser.getId(), savedProfile.getId(), chatRoomIds);
+            userInboxService.refreshChatRooms(chatRoomIds);
 
-        Profile savedProfile = profileRepository.save(profile);
-        logger.info("Profile created - ID: {}, Name: {}, User: {}",
-                    savedProfile.getId(), savedProfile.getName(), currentUser.getId());
+            logger.info("Profile created - ID: {}, Name: {}, User: {}, Assigned {} chat rooms",
+                       savedProfile.getId(), savedProfile.getName(), currentUser.getId(), chatRoomIds.size());
+        } else {
+            logger.info("Profile created - ID: {}, Name: {}, User: {}",
+                        savedProfile.getId(), savedProfile.getName(), currentUser.getId());
+        }
 
         return toProfileResponse(savedProfile);
     }
@@ -157,6 +160,9 @@ public class ProfileService {
         logger.info("Updating profile {} for user: {} (LDAP: {})",
                     profileId, currentUser.getName(), currentUser.getLdap());
 
+        // 변경 전 할당된 채팅방 (할당 해제되거나 아바타가 바뀐 채팅방의 inbox 갱신용)
+        Set<Long> affectedChatRoomIds = new HashSet<>(profileChatRoomRepository.findChatRoomIdsByProfileId(profileId));
+
         if (request.getName() != null && !request.getName().trim().isEmpty()) {
             logger.info("Updating profile name from '{}' to '{}'", profile.getName(), request.getName());
             profile.setName(request.getName());
@@ -174,25 +180,21 @@ public class ProfileService {
             profile.setDefaultPersona(request.getDefaultPersona());
         }
         if (request.getAssignedFriends() != null) {
-            try {
-                // Convert String IDs to Long IDs for storage
-                List<Long> linkedChatRoomIds = request.getAssignedFriends().stream()
-                        .map(Long::valueOf)
-                        .collect(Collectors.toList());
-                String linkedChatRoomIdsJson = objectMapper.writeValueAsString(linkedChatRoomIds);
-                profile.setLinkedChatRoomIds(linkedChatRoomIdsJson);
-
-                // 다른 프로필에서 이 채팅방들을 제거 (중복 방지)
-                removeFromOtherProfiles(currentUser.getId(), profileId, linkedChatRoomIds);
-
-                logger.info("Profile {} assigned {} chat rooms, removed from other profiles",
-                           profileId, linkedChatRoomIds.size());
-            } catch (JsonProcessingException e) {
-                logger.error("Failed to serialize assignedFriends", e);
+            List<Long> chatRoomIds = toChatRoomIds(request.getAssignedFriends());
+            // 목록에서 빠진 채팅방은 할당 해제(기본 프로필로), 새 채팅방은 다른 프로필에서 이 프로필로 옮겨짐
+            if (chatRoomIds.isEmpty()) {
+                profileChatRoomRepository.unassignAll(profileId);
+            } else {
+                profileChatRoomRepository.unassignExcept(profileId, chatRoomIds);
             }
+            assignChatRooms(currentUser.getId(), profileId, chatRoomIds);
+            affectedChatRoomIds.addAll(chatRoomIds);
+
+            logger.info("Profile {} assigned {} chat rooms", profileId, chatRoomIds.size());
         }
 
         Profile updatedProfile = profileRepository.save(profile);
+        userInboxService.refreshChatRooms(affectedChatRoomIds);
         logger.info("Profile updated successfully - ID: {}", profileId);
 
         return toProfileResponse(updatedProfile);
@@ -212,11 +214,19 @@ public class ProfileService {
             throw new IllegalArgumentException("Cannot delete the default '전체' profile");
         }
 
+        List<Long> linkedChatRoomIds = profileChatRoomRepository.findChatRoomIdsByProfileId(profileId);
+        profileChatRoomRepository.unassignAll(profileId);
         profileRepository.deleteById(profileId);
+        // 삭제된 프로필의 채팅방은 기본 프로필로 돌아감
+        userInboxService.refreshChatRooms(linkedChatRoomIds);
         logger.info("Profile deleted - ID: {}", profileId);
     }
 
     private ProfileResponse toProfileResponse(Profile profile) {
+        return toProfileResponse(profile, profileChatRoomRepository.findChatRoomIdsByProfileId(profile.getId()));
+    }
+
+    private ProfileResponse toProfileResponse(Profile profile, List<Long> chatRoomIds) {
         ProfileResponse response = new ProfileResponse();
         response.setId(profile.getId());
         response.setUserId(profile.getUser().getId());
@@ -226,79 +236,44 @@ public class ProfileService {
         response.setDefaultPersona(profile.getDefaultPersona());
         response.setIsDefault(profile.getIsDefault());
 
-        if (profile.getLinkedChatRoomIds() != null && !profile.getLinkedChatRoomIds().trim().isEmpty()) {
-            try {
-                List<Long> linkedChatRoomIds = objectMapper.readValue(
-                        profile.getLinkedChatRoomIds(),
-                        new TypeReference<List<Long>>() {}
-                );
-                // Convert Long IDs to String IDs for assignedFriends
-                List<String> assignedFriends = linkedChatRoomIds.stream()
-                        .map(String::valueOf)
-                        .collect(Collectors.toList());
-                response.setAssignedFriends(assignedFriends);
-            } catch (JsonProcessingException e) {
-                logger.error("Failed to parse linkedChatRoomIds JSON", e);
-                response.setAssignedFriends(new ArrayList<>());
-            }
-        } else {
-            response.setAssignedFriends(new ArrayList<>());
-        }
+        // Convert Long IDs to String IDs for assignedFriends
+        response.setAssignedFriends(chatRoomIds.stream()
+                .map(String::valueOf)
+                .collect(Collectors.toList()));
 
         return response;
     }
 
-    private void validateImageFormat(String avatar) {
-        // 모든 이미지 형식 허용
-        logger.debug("Image format validation skipped - all formats allowed");
+    private List<Long> toChatRoomIds(List<String> assignedFriends) {
+        return assignedFriends.stream()
+                .map(Long::valueOf)
+                .distinct()
+                .collect(Collectors.toList());
     }
 
     /**
-     * 다른 프로필에서 특정 채팅방들을 제거 (중복 방지)
-     *
-     * @param userId 사용자 ID
-     * @param currentProfileId 현재 프로필 ID (이 프로필은 제외)
-     * @param chatRoomIds 제거할 채팅방 ID 목록
+     * 채팅방들을 프로필에 할당 (upsert 한 번, 동시에 여러 프로필을 수정해도 할당이 유실되지 않음)
      */
-    private void removeFromOtherProfiles(Long userId, Long currentProfileId, List<Long> chatRoomIds) {
-        if (chatRoomIds == null || chatRoomIds.isEmpty()) {
+    private void assignChatRooms(Long userId, Long profileId, List<Long> chatRoomIds) {
+        if (chatRoomIds.isEmpty()) {
             return;
         }
 
-        List<Profile> allProfiles = profileRepository.findByUserId(userId);
+        // 멤버가 아닌 채팅방은 할당할 수 없음
+        Set<Long> memberChatRoomIds = new HashSet<>(chatRoomMemberRepository.findMemberChatRoomIds(userId, chatRoomIds));
+        List<Long> notMember = chatRoomIds.stream()
+                .filter(chatRoomId -> !memberChatRoomIds.contains(chatRoomId))
+                .collect(Collectors.toList());
+        if (!notMember.isEmpty()) {
+            throw new IllegalArgumentException("User is not a member of chat rooms: " + notMember);
+        }
 
-        for (Profile profile : allProfiles) {
-            // 현재 프로필이거나 기본 프로필은 제외
-            if (profile.getId().equals(currentProfileId) || profile.getIsDefault()) {
-                continue;
-            }
+        int assigned = profileChatRoomRepository.assign(userId, profileId, chatRoomIds);
+        logger.debug("Assigned {} chat rooms to profile {}", assigned, profileId);
+    }
 
-            // linkedChatRoomIds가 있는지 확인
-            if (profile.getLinkedChatRoomIds() != null && !profile.getLinkedChatRoomIds().trim().isEmpty()) {
-                try {
-                    List<Long> linkedIds = objectMapper.readValue(
-                            profile.getLinkedChatRoomIds(),
-                            new TypeReference<List<Long>>() {}
-                    );
-
-                    // 제거할 채팅방 ID를 필터링
-                    List<Long> updatedIds = linkedIds.stream()
-                            .filter(id -> !chatRoomIds.contains(id))
-                            .collect(Collectors.toList());
-
-                    // 변경사항이 있으면 저장
-                    if (updatedIds.size() != linkedIds.size()) {
-                        String updatedJson = objectMapper.writeValueAsString(updatedIds);
-                        profile.setLinkedChatRoomIds(updatedJson);
-                        profileRepository.save(profile);
-
-                        logger.info("Removed {} chat rooms from profile {} (remaining: {})",
-                                   linkedIds.size() - updatedIds.size(), profile.getId(), updatedIds.size());
-                    }
-                } catch (JsonProcessingException e) {
-                    logger.error("Failed to process linkedChatRoomIds for profile {}", profile.getId(), e);
-                }
-            }
-        }
+    private void validateImageFormat(String avatar) {
+        // 모든 이미지 형식 허용
+        logger.debug("Image format validation skipped - all formats allowed");
     }
 }
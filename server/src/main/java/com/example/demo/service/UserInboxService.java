@@ -0,0 +1,194 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.ChatRoom;
+import com.example.demo.entity.ChatRoomMember;
+import com.example.demo.entity.Message;
+import com.example.demo.entity.Profile;
+import com.example.demo.entity.User;
+import com.example.demo.repository.ChatRoomRepository;
+import com.example.demo.repository.UserInboxRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * user_inbox projection 갱신 담당
+ *
+ * - 메시지 전송, 읽음 처리, 채팅방 생성, 프로필 재할당 시 호출하는 쪽 트랜잭션 안에서 필요한 부분만 갱신
+ * - 주기적으로 모든 채팅방을 원본 테이블 기준으로 다시 계산하여 어긋난 값을 바로잡음
+ */
+@Service
+@Transactional
+public class UserInboxService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserInboxService.class);
+    private static final int PREVIEW_LENGTH = 100;
+    private final UserInboxRepository userInboxRepository;
+    private final ChatRoomRepository chatRoomRepository;
+    private final ChatDataLoader chatDataLoader;
+    private final TransactionTemplate transactionTemplate;
+    private final int rebuildBatchSize;
+
+    @Autowired
+    public UserInboxService(UserInboxRepository userInboxRepository,
+                            ChatRoomRepository chatRoomRepository,
+                            ChatDataLoader chatDataLoader,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${chat.inbox.rebuild-batch-size:200}") int rebuildBatchSize) {
+        this.userInboxRepository = userInboxRepository;
+        this.chatRoomRepository = chatRoomRepository;
+        this.chatDataLoader = chatDataLoader;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.rebuildBatchSize = rebuildBatchSize;
+    }
+
+    /**
+     * 새 메시지를 채팅방 멤버들의 inbox에 반영 (UPDATE 한 번)
+     */
+    public void recordMessage(Message message) {
+        int updated = userInboxRepository.recordMessage(
+                message.getChatRoom().getId(),
+                message.getId(),
+                message.getSender().getId(),
+                toPreview(message),
+                message.getTimestamp());
+        logger.debug("Recorded message {} in {} inbox rows", message.getId(), updated);
+    }
+
+    /**
+     * 읽음 watermark가 바뀐 채팅방들의 안 읽은 수를 다시 계산
+     */
+    public void refreshUnreadCounts(Long userId, Collection<Long> chatRoomIds) {
+        if (chatRoomIds.isEmpty()) {
+            return;
+        }
+        userInboxRepository.refreshUnreadCounts(userId, chatRoomIds);
+    }
+
+    /**
+     * 사용자가 속한 모든 채팅방을 다시 계산 (사용자 이름/아바타 변경 시)
+     */
+    public void refreshUserChatRooms(Long userId) {
+        refreshChatRooms(chatRoomRepository.findByUserId(userId).stream()
+                .map(ChatRoom::getId)
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * 채팅방들의 모든 멤버 inbox 행을 원본 테이블 기준으로 다시 계산 (없으면 생성)
+     *
+     * 읽어 둔 행을 통째로 저장하지 않고 컬럼 묶음별로 조건부 upsert/UPDATE만 실행하므로,
+     * 계산하는 동안 recordMessage / refreshUnreadCounts가 반영한 값을 덮어쓰지 않음
+     * - 표시 이름/아바타, 프로필 할당: 애플리케이션에서 계산하여 행 단위 upsert (값이 바뀐 행만 갱신)
+     * - 마지막 메시지, 안 읽은 수: 원본 테이블에서 UPDATE 한 번으로 다시 계산
+     */
+    public void refreshChatRooms(Collection<Long> chatRoomIds) {
+        if (chatRoomIds.isEmpty()) {
+            return;
+        }
+
+        userInboxRepository.deleteOrphans(chatRoomIds);
+
+        List<ChatRoom> chatRooms = chatRoomRepository.findAllById(chatRoomIds);
+        Map<Long, List<ChatRoomMember>> membersByRoom = chatDataLoader.loadMembers(chatRoomIds);
+        Set<Long> memberUserIds = membersByRoom.values().stream()
+                .flatMap(List::stream)
+                .map(member -> member.getUser().getId())
+                .collect(Collectors.toSet());
+        Map<Long, Map<Long, Profile>> linkedProfiles = chatDataLoader.loadLinkedProfiles(memberUserIds, chatRoomIds);
+
+        int changedRows = 0;
+        for (ChatRoom chatRoom : chatRooms) {
+            List<ChatRoomMember> members = membersByRoom.getOrDefault(chatRoom.getId(), List.of());
+
+            for (ChatRoomMember member : members) {
+                User user = member.getUser();
+
+                // 기본 프로필에 링크된 채팅방은 "할당되지 않음"으로 취급 (기본 프로필 목록에 표시)
+                Profile assignedProfile = linkedProfiles.getOrDefault(user.getId(), Map.of()).get(chatRoom.getId());
+                Long profileId = assignedProfile != null && !assignedProfile.getIsDefault() ? assignedProfile.getId() : null;
+
+                Display display = toDisplay(chatRoom, members, user, linkedProfiles);
+                changedRows += userInboxRepository.upsertDisplay(user.getId(), chatRoom.getId(), profileId,
+                        display.name(), display.avatar());
+            }
+        }
+
+        int recountedRows = userInboxRepository.refreshLastMessages(chatRoomIds);
+        logger.debug("Refreshed inbox for {} chat rooms ({} display rows, {} message rows changed)",
+                chatRooms.size(), changedRows, recountedRows);
+    }
+
+    /**
+     * 전체 inbox를 채팅방 묶음 단위로 다시 계산 (묶음마다 별도 트랜잭션)
+     */
+    @Scheduled(initialDelayString = "${chat.inbox.rebuild-initial-delay:30s}",
+               fixedDelayString = "${chat.inbox.rebuild-interval:1h}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void rebuild() {
+        long startTime = System.currentTimeMillis();
+        List<Long> chatRoomIds = chatRoomRepository.findAllIds();
+
+        for (int from = 0; from < chatRoomIds.size(); from += rebuildBatchSize) {
+            List<Long> batch = chatRoomIds.subList(from, Math.min(from + rebuildBatchSize, chatRoomIds.size()));
+            try {
+                transactionTemplate.executeWithoutResult(status -> refreshChatRooms(batch));
+            } catch (Exception e) {
+                logger.error("Failed to rebuild inbox for chat rooms {} - {}", batch.get(0), batch.get(batch.size() - 1), e);
+            }
+        }
+
+        logger.info("Rebuilt user inbox for {} chat rooms in {}ms",
+                chatRoomIds.size(), System.currentTimeMillis() - startTime);
+    }
+
+    /**
+     * 목록에 표시할 이름/아바타 계산
+     * - 1:1 채팅방: 상대방 이름, 상대방이 이 채팅방을 링크한 프로필 아바타 (없으면 상대방 기본 아바타)
+     * - 그룹 채팅방 또는 상대방이 없는 경우: 채팅방에 저장된 값
+     */
+    private Display toDisplay(ChatRoom chatRoom, List<ChatRoomMember> members, User owner,
+                              Map<Long, Map<Long, Profile>> linkedProfiles) {
+        User otherUser = chatRoom.getIsGroup() ? null : members.stream()
+                .map(ChatRoomMember::getUser)
+                .filter(user -> !user.getId().equals(owner.getId()))
+                .findFirst()
+                .orElse(null);
+
+        if (otherUser == null) {
+            return new Display(chatRoom.getName(), chatRoom.getAvatar());
+        }
+
+        String avatar = otherUser.getAvatar();
+        Profile linkedProfile = linkedProfiles.getOrDefault(otherUser.getId(), Map.of()).get(chatRoom.getId());
+        if (linkedProfile != null && linkedProfile.getAvatar() != null) {
+            avatar = linkedProfile.getAvatar();
+        }
+        return new Display(otherUser.getName(), avatar);
+    }
+
+    private String toPreview(Message message) {
+        String content = message.getContent();
+        if (content == null || content.codePointCount(0, content.length()) <= PREVIEW_LENGTH) {
+            return content;
+        }
+        // 이모지(서로게이트 쌍)가 중간에 잘리지 않도록 code point 기준으로 자름
+        return content.substring(0, content.offsetByCodePoints(0, PREVIEW_LENGTH));
+    }
+
+    private record Display(String name, String avatar) {
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.demo.service;
 
+import com.example.demo.cache.BoundedTtlCache;
 import com.example.demo.dto.request.UpdateUserRequest;
 import com.example.demo.entity.User;
 import com.example.demo.exception.EntityNotFoundException;
@@ -9,9 +10,13 @@ import com.example.demo.security.LdapContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -22,49 +27,90 @@ public class UserService {
 
     private static final Logger logger = LoggerFactory.getLogger(UserService.class);
     private static final List<String> SUPPORTED_IMAGE_FORMATS = Arrays.asList("png", "jpeg", "jpg", "gif");
+    private static final String CURRENT_USER_ATTRIBUTE = UserService.class.getName() + ".currentUser";
     private final UserRepository userRepository;
+    private final UserInboxService userInboxService;
+    // normalized ldap -> User (캐시 전용 인스턴스, 외부에는 복사본만 반환)
+    private final BoundedTtlCache<String, User> userCache;
 
     @Autowired
-    public UserService(UserRepository userRepository) {
+    public UserService(UserRepository userRepository,
+                       UserInboxService userInboxService,
+                       @Value("${user.cache.max-size:10000}") int cacheMaxSize,
+                       @Value("${user.cache.ttl:10m}") Duration cacheTtl) {
         this.userRepository = userRepository;
+        this.userInboxService = userInboxService;
+        this.userCache = new BoundedTtlCache<>(cacheMaxSize, cacheTtl);
     }
 
+    /**
+     * 현재 요청의 사용자. 요청당 한 번만 확인하고(요청 attribute에 저장), 요청 간에는 공유 캐시를 사용함
+     */
     public User getCurrentUser() {
         String ldap = LdapContext.getLdap();
         if (ldap == null) {
             throw new IllegalStateException("No LDAP found in context");
         }
-        return findOrCreateUserByLdap(ldap);
+
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        if (requestAttributes != null
+                && requestAttributes.getAttribute(CURRENT_USER_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof User memo
+                && ldap.toLowerCase().trim().equals(memo.getLdap())) {
+            return memo;
+        }
+
+        User currentUser = findOrCreateUserByLdap(ldap);
+        if (requestAttributes != null) {
+            requestAttributes.setAttribute(CURRENT_USER_ATTRIBUTE, currentUser, RequestAttributes.SCOPE_REQUEST);
+        }
+        return currentUser;
     }
 
+    /**
+     * LDAP으로 사용자를 찾고, 없으면 생성
+     * 반환값은 캐시와 분리된 복사본이므로 호출하는 쪽에서 수정해도 캐시에 영향을 주지 않음
+     */
     public User findOrCreateUserByLdap(String ldap) {
         // Normalize LDAP to lowercase for consistency
         String normalizedLdap = ldap.toLowerCase().trim();
-        return userRepository.findByLdapIgnoreCase(normalizedLdap)
-                .orElseGet(() -> {
-                    User newUser = new User(normalizedLdap, normalizedLdap);
-
-                    // 기본 아바타 생성 (사용자 이름의 첫 글자 사용)
-                    String avatarName = normalizedLdap.substring(0, 1).toUpperCase();
-                    String defaultAvatar = String.format(
-                        "https://ui-avatars.com/api/?name=%s&size=200&background=random&color=ffffff&bold=true",
-                        avatarName
-                    );
-                    newUser.setAvatar(defaultAvatar);
-
-                    logger.info("Creating new user with LDAP: {} and default avatar", normalizedLdap);
-                    return userRepository.save(newUser);
-                });
+        User cached = userCache.computeIfAbsent(normalizedLdap, this::loadOrCreateUser);
+        return copyOf(cached);
     }
 
     public Optional<User> getUserByLdap(String ldap) {
-        return userRepository.findByLdapIgnoreCase(ldap.toLowerCase().trim());
+        return userRepository.findByLdap(ldap.toLowerCase().trim());
     }
 
     public Optional<User> getUserById(Long id) {
         return userRepository.findById(id);
     }
 
+    private User loadOrCreateUser(String normalizedLdap) {
+        Optional<User> existing = userRepository.findByLdap(normalizedLdap);
+        if (existing.isPresent()) {
+            return copyOf(existing.get());
+        }
+
+        // 기본 아바타 생성 (사용자 이름의 첫 글자 사용)
+        String avatarName = normalizedLdap.substring(0, 1).toUpperCase();
+        String defaultAvatar = String.format(
+            "https://ui-avatars.com/api/?name=%s&size=200&background=random&color=ffffff&bold=true",
+            avatarName
+        );
+
+        if (userRepository.insertIfAbsent(normalizedLdap, normalizedLdap, defaultAvatar) > 0) {
+            logger.info("Creating new user with LDAP: {} and default avatar", normalizedLdap);
+        }
+        return copyOf(userRepository.findByLdap(normalizedLdap)
+                .orElseThrow(() -> new IllegalStateException("User not found after insert: " + normalizedLdap)));
+    }
+
+    private User copyOf(User user) {
+        User copy = new User(user.getLdap(), user.getName(), user.getAvatar());
+        copy.setId(user.getId());
+        return copy;
+    }
+
     public User updateUser(Long id, User userDetails) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("User not found with id: " + id));
@@ -76,7 +122,11 @@ public class UserService {
             user.setAvatar(userDetails.getAvatar());
         }
 
-        return userRepository.save(user);
+        User updatedUser = userRepository.save(user);
+        userCache.evict(updatedUser.getLdap());
+        // 상대방 채팅방 목록에 표시되는 이름/아바타 갱신
+        userInboxService.refreshUserChatRooms(updatedUser.getId());
+        return updatedUser;
     }
 
     public User updateCurrentUser(UpdateUserRequest request) {
@@ -97,6 +147,9 @@ public class UserService {
         }
 
         User updatedUser = userRepository.save(currentUser);
+        userCache.evict(updatedUser.getLdap());
+        // 상대방 채팅방 목록에 표시되는 이름/아바타 갱신
+        userInboxService.refreshUserChatRooms(updatedUser.getId());
         logger.info("User updated successfully: {}", updatedUser.getLdap());
 
         return updatedUser;
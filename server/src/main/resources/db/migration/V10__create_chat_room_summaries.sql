@@ -0,0 +1,7 @@
+-- 채팅방별 누적 대화 요약: last_seq까지의 메시지를 요약한 결과 (ChatRoomSummaryService가 K개마다 갱신)
+CREATE TABLE IF NOT EXISTS hackerton.chat_room_summaries (
+    chat_room_id BIGINT PRIMARY KEY REFERENCES hackerton.chat_rooms(id) ON DELETE CASCADE,
+    summary TEXT NOT NULL,
+    last_seq BIGINT NOT NULL,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
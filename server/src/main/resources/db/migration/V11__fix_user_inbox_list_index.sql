@@ -0,0 +1,6 @@
+-- 채팅방 목록 정렬(last_message_time DESC NULLS LAST, chat_room_id DESC)과 같은 순서의 인덱스로 교체
+-- V6의 인덱스(DESC = NULLS FIRST)로는 정렬 단계가 추가로 필요했음. V6은 이미 적용된 DB가 있으므로 수정하지 않고 여기서 교체
+DROP INDEX IF EXISTS hackerton.idx_user_inbox_user_last_message;
+
+CREATE INDEX IF NOT EXISTS idx_user_inbox_user_last_message
+    ON hackerton.user_inbox(user_id, last_message_time DESC NULLS LAST, chat_room_id DESC);
@@ -0,0 +1,8 @@
+-- 엔티티에는 있지만 마이그레이션으로는 만들어진 적 없는 (ddl-auto로만 생성되던) 컬럼 추가
+-- 마이그레이션만으로 만든 DB(run_migration.sh / psql, 통합 테스트)에서도 엔티티와 스키마가 일치하도록 함
+
+-- Message.profileId: 보낸 사람이 어떤 프로필로 보냈는지 (프로필이 삭제되어도 메시지는 유지하므로 FK 없음)
+ALTER TABLE hackerton.messages ADD COLUMN IF NOT EXISTS profile_id BIGINT;
+
+-- Profile.isDefault: V7에서 추가하지만 V7 이전 상태로 남아 있는 DB를 위해 한 번 더 보장
+ALTER TABLE hackerton.profiles ADD COLUMN IF NOT EXISTS is_default BOOLEAN NOT NULL DEFAULT false;
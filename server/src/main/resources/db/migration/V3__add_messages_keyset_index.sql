@@ -0,0 +1,4 @@
+-- Keyset pagination index for message history
+-- (chat_room_id, timestamp, id) 순서로 정렬된 페이지를 인덱스 범위 스캔으로 조회
+CREATE INDEX IF NOT EXISTS idx_messages_room_timestamp_id
+    ON hackerton.messages(chat_room_id, timestamp, id);
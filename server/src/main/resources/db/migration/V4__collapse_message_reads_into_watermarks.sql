@@ -0,0 +1,24 @@
+-- Read receipts: message_reads(메시지별 읽음 행) -> chat_room_members.last_read_message_id(watermark)
+-- 읽음 여부는 message.id <= 상대방 last_read_message_id 로 계산
+
+-- 1. 멤버별로 읽은 메시지 중 가장 큰 ID를 watermark로 반영 (이미 더 앞선 값은 유지)
+--    message_reads는 마이그레이션이 아닌 Hibernate가 만들었던 테이블이므로 새로 만든 DB에는 없을 수 있음
+DO $$
+BEGIN
+    IF to_regclass('hackerton.message_reads') IS NOT NULL THEN
+        UPDATE hackerton.chat_room_members crm
+        SET last_read_message_id = reads.max_message_id
+        FROM (
+            SELECT m.chat_room_id, mr.user_id, MAX(mr.message_id) AS max_message_id
+            FROM hackerton.message_reads mr
+            JOIN hackerton.messages m ON m.id = mr.message_id
+            GROUP BY m.chat_room_id, mr.user_id
+        ) reads
+        WHERE crm.chat_room_id = reads.chat_room_id
+          AND crm.user_id = reads.user_id
+          AND (crm.last_read_message_id IS NULL OR crm.last_read_message_id < reads.max_message_id);
+    END IF;
+END $$;
+
+-- 2. 더 이상 사용하지 않는 메시지별 읽음 테이블 제거
+DROP TABLE IF EXISTS hackerton.message_reads;
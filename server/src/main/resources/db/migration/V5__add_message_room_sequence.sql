@@ -0,0 +1,30 @@
+-- 채팅방별 메시지 순번(seq): timestamp 대신 (chat_room_id, seq)로 poll/동기화 커서를 사용
+-- 같은 timestamp를 가진 메시지도 누락/중복 없이 조회되고, 클라이언트가 빈 구간을 감지할 수 있음
+
+-- 1. 메시지 순번 컬럼 추가 및 기존 메시지는 채팅방별 (timestamp, id) 순서로 채움
+ALTER TABLE hackerton.messages ADD COLUMN IF NOT EXISTS seq BIGINT;
+
+UPDATE hackerton.messages m
+SET seq = numbered.seq
+FROM (
+    SELECT id, ROW_NUMBER() OVER (PARTITION BY chat_room_id ORDER BY timestamp, id) AS seq
+    FROM hackerton.messages
+) numbered
+WHERE m.id = numbered.id;
+
+ALTER TABLE hackerton.messages ALTER COLUMN seq SET NOT NULL;
+
+CREATE UNIQUE INDEX IF NOT EXISTS uq_messages_room_seq
+    ON hackerton.messages(chat_room_id, seq);
+
+-- 2. 채팅방별 마지막 할당 순번 (메시지 저장 시 원자적으로 증가)
+ALTER TABLE hackerton.chat_rooms ADD COLUMN IF NOT EXISTS last_message_seq BIGINT NOT NULL DEFAULT 0;
+
+UPDATE hackerton.chat_rooms cr
+SET last_message_seq = latest.max_seq
+FROM (
+    SELECT chat_room_id, MAX(seq) AS max_seq
+    FROM hackerton.messages
+    GROUP BY chat_room_id
+) latest
+WHERE cr.id = latest.chat_room_id;
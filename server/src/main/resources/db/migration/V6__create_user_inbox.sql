@@ -0,0 +1,49 @@
+-- 사용자별 채팅방 목록 projection: 목록 조회를 (user_id, last_message_time) 인덱스 범위 스캔 한 번으로 처리
+-- 값은 애플리케이션이 원본 변경 시 갱신하며, 주기적인 rebuild 작업이 어긋난 값을 바로잡음
+CREATE TABLE IF NOT EXISTS hackerton.user_inbox (
+    id BIGSERIAL PRIMARY KEY,
+    user_id BIGINT NOT NULL REFERENCES hackerton.users(id) ON DELETE CASCADE,
+    chat_room_id BIGINT NOT NULL REFERENCES hackerton.chat_rooms(id) ON DELETE CASCADE,
+    profile_id BIGINT REFERENCES hackerton.profiles(id) ON DELETE SET NULL,
+    display_name VARCHAR(100),
+    display_avatar TEXT,
+    last_message_id BIGINT,
+    last_message_preview TEXT,
+    last_message_time TIMESTAMP,
+    unread_count BIGINT NOT NULL DEFAULT 0,
+    version BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uq_user_inbox_user_room UNIQUE (user_id, chat_room_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_user_inbox_user_last_message
+    ON hackerton.user_inbox(user_id, last_message_time DESC);
+CREATE INDEX IF NOT EXISTS idx_user_inbox_user_profile
+    ON hackerton.user_inbox(user_id, profile_id);
+CREATE INDEX IF NOT EXISTS idx_user_inbox_room
+    ON hackerton.user_inbox(chat_room_id);
+
+-- 기존 멤버십으로 초기 데이터 생성 (표시 이름/아바타, 프로필 할당은 애플리케이션 시작 후 rebuild에서 채움)
+INSERT INTO hackerton.user_inbox (user_id, chat_room_id, display_name, display_avatar,
+                                  last_message_id, last_message_preview, last_message_time, unread_count)
+SELECT crm.user_id,
+       crm.chat_room_id,
+       cr.name,
+       cr.avatar,
+       latest.id,
+       LEFT(latest.content, 100),
+       latest.timestamp,
+       (SELECT COUNT(*) FROM hackerton.messages m
+        WHERE m.chat_room_id = crm.chat_room_id
+          AND m.id > COALESCE(crm.last_read_message_id, 0)
+          AND m.sender_id <> crm.user_id)
+FROM hackerton.chat_room_members crm
+JOIN hackerton.chat_rooms cr ON cr.id = crm.chat_room_id
+LEFT JOIN LATERAL (
+    SELECT m.id, m.content, m.timestamp
+    FROM hackerton.messages m
+    WHERE m.chat_room_id = crm.chat_room_id
+    ORDER BY m.seq DESC
+    LIMIT 1
+) latest ON true
+ON CONFLICT (user_id, chat_room_id) DO NOTHING;
@@ -0,0 +1,33 @@
+-- 프로필-채팅방 할당: profiles.linked_chat_room_ids(JSON 배열 TEXT) -> profile_chat_rooms 테이블
+-- 사용자당 채팅방 하나는 하나의 프로필에만 할당됨 (user_id, chat_room_id 유니크)
+CREATE TABLE IF NOT EXISTS hackerton.profile_chat_rooms (
+    id BIGSERIAL PRIMARY KEY,
+    user_id BIGINT NOT NULL REFERENCES hackerton.users(id) ON DELETE CASCADE,
+    profile_id BIGINT NOT NULL REFERENCES hackerton.profiles(id) ON DELETE CASCADE,
+    chat_room_id BIGINT NOT NULL REFERENCES hackerton.chat_rooms(id) ON DELETE CASCADE,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uq_profile_chat_rooms_user_room UNIQUE (user_id, chat_room_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_profile_chat_rooms_profile ON hackerton.profile_chat_rooms(profile_id);
+CREATE INDEX IF NOT EXISTS idx_profile_chat_rooms_room ON hackerton.profile_chat_rooms(chat_room_id);
+
+-- is_default는 엔티티(Profile.isDefault)에만 있고 V1에는 없으므로 (ddl-auto로만 생성되던 컬럼) 이전 정렬에 쓰기 전에 추가
+ALTER TABLE hackerton.profiles ADD COLUMN IF NOT EXISTS is_default BOOLEAN NOT NULL DEFAULT false;
+
+-- 기존 JSON 데이터 이전: 같은 채팅방이 여러 프로필에 있으면 기본 프로필이 아닌 프로필, 그중 ID가 작은 프로필 우선
+INSERT INTO hackerton.profile_chat_rooms (user_id, profile_id, chat_room_id)
+SELECT DISTINCT ON (p.user_id, linked.chat_room_id)
+       p.user_id, p.id, linked.chat_room_id
+FROM hackerton.profiles p
+CROSS JOIN LATERAL (
+    SELECT value::BIGINT AS chat_room_id
+    FROM jsonb_array_elements_text(p.linked_chat_room_ids::jsonb)
+) linked
+JOIN hackerton.chat_rooms cr ON cr.id = linked.chat_room_id
+WHERE p.linked_chat_room_ids IS NOT NULL
+  AND TRIM(p.linked_chat_room_ids) <> ''
+ORDER BY p.user_id, linked.chat_room_id, p.is_default ASC, p.id ASC
+ON CONFLICT (user_id, chat_room_id) DO NOTHING;
+
+ALTER TABLE hackerton.profiles DROP COLUMN IF EXISTS linked_chat_room_ids;
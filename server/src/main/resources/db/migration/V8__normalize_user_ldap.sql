@@ -0,0 +1,10 @@
+-- 사용자 조회를 ldap 정확히 일치(idx_users_ldap)로 바꾸기 위해 기존 값을 소문자/공백 제거 형태로 정규화
+-- 정규화 후 다른 사용자와 겹치는 행은 그대로 둠 (수동 정리 대상)
+UPDATE hackerton.users u
+SET ldap = lower(trim(u.ldap))
+WHERE u.ldap <> lower(trim(u.ldap))
+  AND NOT EXISTS (
+      SELECT 1 FROM hackerton.users other
+      WHERE other.id <> u.id
+        AND lower(trim(other.ldap)) = lower(trim(u.ldap))
+  );
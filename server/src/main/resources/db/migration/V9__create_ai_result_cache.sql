@@ -0,0 +1,13 @@
+-- AI 호출 결과 영속 캐시: 같은 문구/설정의 변환·감정 검사 결과를 재시작 후에도 재사용
+CREATE TABLE IF NOT EXISTS hackerton.ai_result_cache (
+    cache_key VARCHAR(64) PRIMARY KEY,
+    kind VARCHAR(32) NOT NULL,
+    model VARCHAR(100) NOT NULL,
+    prompt_version VARCHAR(32) NOT NULL,
+    result TEXT NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    expires_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_ai_result_cache_expires_at
+    ON hackerton.ai_result_cache(expires_at);
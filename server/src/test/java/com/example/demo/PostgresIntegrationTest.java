@@ -0,0 +1,65 @@
+package com.example.demo;
+
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.postgresql.PostgreSQLContainer;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * PostgreSQL 컨테이너를 띄우고 db/migration 스크립트를 버전 순서대로 적용한 뒤 테스트 컨텍스트를 연결
+ * (운영에서는 run_migration.sh / psql로 적용하는 것과 같은 스크립트)
+ *
+ * 컨테이너는 테스트 클래스 전체에서 하나만 사용하며, 시드 데이터(V2)의 사용자/채팅방을 그대로 사용함
+ */
+public abstract class PostgresIntegrationTest {
+
+    protected static final PostgreSQLContainer POSTGRES = new PostgreSQLContainer("postgres:16-alpine");
+
+    static {
+        POSTGRES.start();
+        applyMigrations();
+    }
+
+    @DynamicPropertySource
+    static void postgresProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "none");
+        registry.add("openai.api.key", () -> "test-key");
+        registry.add("openai.model", () -> "gpt-4o-mini");
+    }
+
+    private static void applyMigrations() {
+        try (Connection connection = DriverManager.getConnection(
+                POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE SCHEMA IF NOT EXISTS hackerton");
+
+            Resource[] scripts = new PathMatchingResourcePatternResolver()
+                    .getResources("classpath:db/migration/V*__*.sql");
+            Arrays.sort(scripts, Comparator.comparingInt(PostgresIntegrationTest::version));
+            for (Resource script : scripts) {
+                // DO $$ ... $$ 블록이 있으므로 문장 단위로 나누지 않고 파일 전체를 한 번에 실행
+                statement.execute(script.getContentAsString(StandardCharsets.UTF_8));
+            }
+        } catch (SQLException | IOException e) {
+            throw new IllegalStateException("Failed to apply migrations", e);
+        }
+    }
+
+    private static int version(Resource script) {
+        String filename = script.getFilename();
+        return Integer.parseInt(filename.substring(1, filename.indexOf("__")));
+    }
+}
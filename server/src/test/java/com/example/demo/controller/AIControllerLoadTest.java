@@ -0,0 +1,93 @@
+package com.example.demo.controller;
+
+import com.example.demo.PostgresIntegrationTest;
+import com.example.demo.service.AICompletionClient;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+/**
+ * 가상 스레드 모드에서 동시에 진행 중인 AI 요청 수가 Tomcat 스레드 풀 크기에 묶이지 않는지 확인
+ *
+ * Tomcat 스레드를 10개로 제한하고 1초 걸리는 AI 호출을 200건 동시에 보냄.
+ * 스레드 풀에 묶인다면 동시에 10건씩만 진행되어 20초 이상 걸림
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.threads.virtual.enabled=true",
+        "server.tomcat.threads.max=10",
+        "ai.summary.enabled=false"
+})
+class AIControllerLoadTest extends PostgresIntegrationTest {
+
+    private static final int REQUESTS = 200;
+    private static final int TOMCAT_THREADS = 10;
+    private static final Duration AI_LATENCY = Duration.ofSeconds(1);
+    private static final String REACTION_JSON = "{\"emotion\":\"happy\",\"emotionScore\":0.8," +
+            "\"suggestedEmojis\":[\"😊\"],\"suggestedTexts\":[],\"quickResponses\":[]}";
+
+    @LocalServerPort
+    private int port;
+
+    @MockitoBean
+    private AICompletionClient aiCompletionClient;
+
+    @Test
+    void inFlightAICallsAreNotCappedByTomcatThreads() {
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        when(aiCompletionClient.complete(eq("reaction-suggest"), any())).thenAnswer(invocation -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(AI_LATENCY);
+            } finally {
+                inFlight.decrementAndGet();
+            }
+            return REACTION_JSON;
+        });
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+
+        long startTime = System.nanoTime();
+        List<CompletableFuture<HttpResponse<String>>> responses = IntStream.range(0, REQUESTS)
+                .mapToObj(i -> client.sendAsync(reactionSuggestRequest(i), HttpResponse.BodyHandlers.ofString()))
+                .toList();
+        CompletableFuture.allOf(responses.toArray(new CompletableFuture[0])).join();
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - startTime);
+
+        assertThat(responses).allSatisfy(response -> {
+            assertThat(response.join().statusCode()).isEqualTo(200);
+            assertThat(response.join().body()).contains("\"emotion\":\"happy\"");
+        });
+        assertThat(maxInFlight.get()).isGreaterThan(TOMCAT_THREADS);
+        assertThat(elapsed).isLessThan(AI_LATENCY.multipliedBy(REQUESTS / TOMCAT_THREADS / 2));
+    }
+
+    private HttpRequest reactionSuggestRequest(int index) {
+        String body = "{\"message\":\"오늘 발표 잘 끝났어요 " + index + "\",\"chatRoomId\":3}";
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/v1/ai/reaction-suggest"))
+                .header("Content-Type", "application/json")
+                .header("X-LDAP", "user001")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.demo.controller;
+
+import com.example.demo.PostgresIntegrationTest;
+import com.example.demo.service.AICompletionClient;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+/**
+ * 메시지 전송 중 AI 호출이 DB 커넥션을 잡고 있지 않은지 확인
+ *
+ * 커넥션 풀을 10개로 제한하고 감정 검사와 변환이 각각 0.5초(AI_LATENCY) 걸리는 전송을 200건 동시에 보냄.
+ * AI 호출이 커넥션을 잡고 있다면 (OSIV 또는 트랜잭션) 동시에 진행 중인 AI 호출 수가 풀 크기를 넘을 수 없고,
+ * AI 호출 스레드에 트랜잭션이 열려 있는지도 호출마다 직접 확인함.
+ * 같은 방 저장은 순번 잠금으로 직렬화되므로 connection-timeout은 느린 머신에서도 실패하지 않도록 넉넉히 둠
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.threads.virtual.enabled=true",
+        "spring.datasource.hikari.maximum-pool-size=10",
+        "spring.datasource.hikari.connection-timeout=30000",
+        "ai.pipeline.mode=sequential",
+        "ai.bulkhead.max-concurrent=500",
+        "ai.summary.enabled=false"
+})
+class MessageSendLoadTest extends PostgresIntegrationTest {
+
+    private static final int REQUESTS = 200;
+    private static final int POOL_SIZE = 10;
+    private static final long CHAT_ROOM_ID = 3L;
+    private static final Duration AI_LATENCY = Duration.ofMillis(500);
+    private static final String GUARD_JSON = "{\"isAggressive\":false,\"aggressionType\":null," +
+            "\"aggressionScore\":0.1,\"suggestion\":null}";
+
+    @LocalServerPort
+    private int port;
+
+    @MockitoBean
+    private AICompletionClient aiCompletionClient;
+
+    @Test
+    void concurrentSendsDoNotHoldConnectionsDuringAICalls() {
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        AtomicInteger callsInTransaction = new AtomicInteger();
+        when(aiCompletionClient.complete(eq("emotion-guard"), any()))
+                .thenAnswer(invocation -> slowly(inFlight, maxInFlight, callsInTransaction, GUARD_JSON));
+        when(aiCompletionClient.complete(eq("transform"), any()))
+                .thenAnswer(invocation -> slowly(inFlight, maxInFlight, callsInTransaction, "변환된 메시지"));
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+
+        List<CompletableFuture<HttpResponse<String>>> responses = IntStream.range(0, REQUESTS)
+                .mapToObj(i -> client.sendAsync(sendMessageRequest(i), HttpResponse.BodyHandlers.ofString()))
+                .toList();
+        CompletableFuture.allOf(responses.toArray(new CompletableFuture[0])).join();
+
+        assertThat(responses).allSatisfy(response -> {
+            assertThat(response.join().statusCode()).isEqualTo(201);
+            assertThat(response.join().body()).contains("\"success\":true");
+        });
+        assertThat(callsInTransaction).hasValue(0);
+        assertThat(maxInFlight.get()).isGreaterThan(POOL_SIZE);
+    }
+
+    private String slowly(AtomicInteger inFlight, AtomicInteger maxInFlight, AtomicInteger callsInTransaction,
+                          String result) throws InterruptedException {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            callsInTransaction.incrementAndGet();
+        }
+        maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        try {
+            Thread.sleep(AI_LATENCY);
+        } finally {
+            inFlight.decrementAndGet();
+        }
+        return result;
+    }
+
+    private HttpRequest sendMessageRequest(int index) {
+        // 같은 내용은 AI 결과 캐시에서 처리되므로 요청마다 내용을 다르게 함
+        String body = "{\"content\":\"내일 회의 자료 확인 부탁해 " + index + "\"," +
+                "\"useTransform\":true,\"useEmotionGuard\":true}";
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/v1/chatrooms/" + CHAT_ROOM_ID + "/messages"))
+                .header("Content-Type", "application/json")
+                .header("X-LDAP", "user001")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+}
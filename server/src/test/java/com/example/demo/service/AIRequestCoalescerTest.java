@@ -0,0 +1,231 @@
+package com.example.demo.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * AIRequestCoalescer의 single-flight 동작 (leader/follower 전달, waiter 제한과 bypass, follower timeout,
+ * leader 취소 시 재호출, 실패 전달). leader 호출은 latch로 붙잡아 두고 follower가 기다리는 중에 풀어줌
+ */
+class AIRequestCoalescerTest {
+
+    private static final String KEY = "cache-key";
+    private static final long TIMEOUT_SECONDS = 5;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void followerReceivesLeaderResult() throws Exception {
+        AIRequestCoalescer coalescer = coalescer(100, Duration.ofSeconds(5));
+        BlockingCall leaderCall = new BlockingCall(() -> "result");
+        AtomicInteger followerCalls = new AtomicInteger();
+
+        CompletableFuture<String> leader = runAsync(coalescer, leaderCall);
+        leaderCall.awaitStarted();
+        CompletableFuture<String> follower = runAsync(coalescer, () -> {
+            followerCalls.incrementAndGet();
+            return "follower";
+        });
+        awaitCount("follower", 1);
+        leaderCall.release();
+
+        assertThat(leader.get(TIMEOUT_SECONDS, TimeUnit.SECONDS)).isEqualTo("result");
+        assertThat(follower.get(TIMEOUT_SECONDS, TimeUnit.SECONDS)).isEqualTo("result");
+        assertThat(leaderCall.calls()).isEqualTo(1);
+        assertThat(followerCalls).hasValue(0);
+
+        // 끝난 호출은 제거되므로 다음 호출은 다시 leader가 됨
+        assertThat(coalescer.execute(KEY, () -> "next")).isEqualTo("next");
+        assertThat(count("leader")).isEqualTo(2.0);
+    }
+
+    @Test
+    void callsBeyondMaxWaitersBypassTheFlight() throws Exception {
+        AIRequestCoalescer coalescer = coalescer(1, Duration.ofSeconds(5));
+        BlockingCall leaderCall = new BlockingCall(() -> "result");
+
+        CompletableFuture<String> leader = runAsync(coalescer, leaderCall);
+        leaderCall.awaitStarted();
+        CompletableFuture<String> follower = runAsync(coalescer, () -> "follower");
+        awaitCount("follower", 1);
+
+        assertThat(coalescer.execute(KEY, () -> "own")).isEqualTo("own");
+        assertThat(count("bypass")).isEqualTo(1.0);
+
+        leaderCall.release();
+        assertThat(leader.get(TIMEOUT_SECONDS, TimeUnit.SECONDS)).isEqualTo("result");
+        assertThat(follower.get(TIMEOUT_SECONDS, TimeUnit.SECONDS)).isEqualTo("result");
+    }
+
+    @Test
+    void followerTimesOutWaitingForLeader() throws Exception {
+        AIRequestCoalescer coalescer = coalescer(100, Duration.ofMillis(100));
+        BlockingCall leaderCall = new BlockingCall(() -> "result");
+
+        CompletableFuture<String> leader = runAsync(coalescer, leaderCall);
+        leaderCall.awaitStarted();
+
+        assertThatThrownBy(() -> coalescer.execute(KEY, () -> "follower"))
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(TimeoutException.class);
+        assertThat(count("timeout")).isEqualTo(1.0);
+
+        leaderCall.release();
+        assertThat(leader.get(TIMEOUT_SECONDS, TimeUnit.SECONDS)).isEqualTo("result");
+    }
+
+    @Test
+    void followerRetriesWhenLeaderIsCancelled() throws Exception {
+        assertFollowerRetries(new CancellationException("superseded"));
+    }
+
+    @Test
+    void followerRetriesWhenLeaderIsInterrupted() throws Exception {
+        // OpenAI 호출이 interrupt되면 InterruptedIOException 등이 다른 예외에 감싸여 올라옴
+        assertFollowerRetries(new IllegalStateException(new InterruptedIOException("interrupted")));
+    }
+
+    private void assertFollowerRetries(RuntimeException leaderFailure) throws Exception {
+        AIRequestCoalescer coalescer = coalescer(100, Duration.ofSeconds(5));
+        BlockingCall leaderCall = new BlockingCall(() -> {
+            throw leaderFailure;
+        });
+        AtomicInteger followerCalls = new AtomicInteger();
+
+        CompletableFuture<String> leader = runAsync(coalescer, leaderCall);
+        leaderCall.awaitStarted();
+        CompletableFuture<String> follower = runAsync(coalescer, () -> {
+            followerCalls.incrementAndGet();
+            return "retried";
+        });
+        awaitCount("follower", 1);
+        leaderCall.release();
+
+        assertThatThrownBy(leader::join).hasCause(leaderFailure);
+        assertThat(follower.get(TIMEOUT_SECONDS, TimeUnit.SECONDS)).isEqualTo("retried");
+        assertThat(followerCalls).hasValue(1);
+    }
+
+    @Test
+    void leaderFailureIsPropagatedToFollowers() throws Exception {
+        AIRequestCoalescer coalescer = coalescer(100, Duration.ofSeconds(5));
+        IllegalStateException failure = new IllegalStateException("boom");
+        BlockingCall leaderCall = new BlockingCall(() -> {
+            throw failure;
+        });
+        AtomicInteger followerCalls = new AtomicInteger();
+
+        CompletableFuture<String> leader = runAsync(coalescer, leaderCall);
+        leaderCall.awaitStarted();
+        CompletableFuture<String> follower = runAsync(coalescer, () -> {
+            followerCalls.incrementAndGet();
+            return "follower";
+        });
+        awaitCount("follower", 1);
+        leaderCall.release();
+
+        assertThatThrownBy(leader::join).hasCause(failure);
+        // follower는 CompletionException(failure)을 던지고, supplyAsync가 이를 그대로 전달함
+        assertThatThrownBy(follower::join)
+                .isInstanceOf(CompletionException.class)
+                .hasCause(failure);
+        assertThat(followerCalls).hasValue(0);
+    }
+
+    @Test
+    void disabledCoalescerCallsDirectly() {
+        AIRequestCoalescer coalescer = new AIRequestCoalescer(meterRegistry, false, 100, Duration.ofSeconds(5));
+        AtomicInteger calls = new AtomicInteger();
+
+        coalescer.execute(KEY, calls::incrementAndGet);
+        coalescer.execute(KEY, calls::incrementAndGet);
+
+        assertThat(calls).hasValue(2);
+        assertThat(count("leader")).isZero();
+    }
+
+    private AIRequestCoalescer coalescer(int maxWaiters, Duration waitTimeout) {
+        return new AIRequestCoalescer(meterRegistry, true, maxWaiters, waitTimeout);
+    }
+
+    private CompletableFuture<String> runAsync(AIRequestCoalescer coalescer, Supplier<String> call) {
+        return CompletableFuture.supplyAsync(() -> coalescer.execute(KEY, call), executor);
+    }
+
+    private double count(String result) {
+        Counter counter = meterRegistry.find("ai.coalesce.requests").tag("result", result).counter();
+        return counter != null ? counter.count() : 0.0;
+    }
+
+    private void awaitCount(String result, double expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+        while (count(result) < expected && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(count(result)).isEqualTo(expected);
+    }
+
+    /**
+     * release()가 호출될 때까지 기다렸다가 result를 실행하는 leader 호출
+     */
+    private static final class BlockingCall implements Supplier<String> {
+        private final Supplier<String> result;
+        private final CountDownLatch started = new CountDownLatch(1);
+        private final CountDownLatch released = new CountDownLatch(1);
+        private final AtomicInteger calls = new AtomicInteger();
+
+        private BlockingCall(Supplier<String> result) {
+            this.result = result;
+        }
+
+        @Override
+        public String get() {
+            calls.incrementAndGet();
+            started.countDown();
+            try {
+                if (!released.await(TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                    throw new IllegalStateException("leader was never released");
+                }
+            } catch (InterruptedException e) {
+                throw new IllegalStateException("interrupted", e);
+            }
+            return result.get();
+        }
+
+        void awaitStarted() throws InterruptedException {
+            assertThat(started.await(TIMEOUT_SECONDS, TimeUnit.SECONDS)).isTrue();
+        }
+
+        void release() {
+            released.countDown();
+        }
+
+        int calls() {
+            return calls.get();
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.example.demo.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * AIRequestRegistry의 latest-wins 취소 (시작 전 취소, 실행 중 interrupt, interrupt 상태 정리, 같은 entry만 제거)
+ */
+class AIRequestRegistryTest {
+
+    private static final AIRequestRegistry.RequestKey KEY = AIRequestRegistry.RequestKey.of(1L, 3L, "transform");
+    private static final long TIMEOUT_SECONDS = 5;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void newerRequestInterruptsRunningRequest() throws Exception {
+        AIRequestRegistry registry = new AIRequestRegistry(meterRegistry, executor);
+        CountDownLatch started = new CountDownLatch(1);
+        AtomicBoolean interrupted = new AtomicBoolean();
+
+        CompletableFuture<String> first = registry.submit(KEY, () -> {
+            started.countDown();
+            try {
+                Thread.sleep(TimeUnit.SECONDS.toMillis(30));
+                return "first";
+            } catch (InterruptedException e) {
+                interrupted.set(true);
+                throw new IllegalStateException("interrupted", e);
+            }
+        });
+        assertThat(started.await(TIMEOUT_SECONDS, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture<String> second = registry.submit(KEY, () -> "second");
+
+        assertThatThrownBy(first::join).isInstanceOf(CancellationException.class);
+        assertThat(second.get(TIMEOUT_SECONDS, TimeUnit.SECONDS)).isEqualTo("second");
+        awaitTrue(interrupted);
+        assertThat(cancelled("running")).isEqualTo(1.0);
+        assertThat(cancelled("queued")).isZero();
+    }
+
+    @Test
+    void newerRequestSkipsQueuedRequest() throws Exception {
+        List<Runnable> queue = new ArrayList<>();
+        AIRequestRegistry registry = new AIRequestRegistry(meterRegistry, queue::add);
+        AtomicBoolean firstCalled = new AtomicBoolean();
+
+        CompletableFuture<String> first = registry.submit(KEY, () -> {
+            firstCalled.set(true);
+            return "first";
+        });
+        CompletableFuture<String> second = registry.submit(KEY, () -> "second");
+        queue.forEach(Runnable::run);
+
+        assertThatThrownBy(first::join).isInstanceOf(CancellationException.class);
+        assertThat(second.get(TIMEOUT_SECONDS, TimeUnit.SECONDS)).isEqualTo("second");
+        assertThat(firstCalled).isFalse();
+        assertThat(cancelled("queued")).isEqualTo(1.0);
+        assertThat(cancelled("running")).isZero();
+    }
+
+    @Test
+    void interruptIsClearedBeforeThreadIsReused() throws Exception {
+        ExecutorService singleThread = Executors.newSingleThreadExecutor();
+        try {
+            AIRequestRegistry registry = new AIRequestRegistry(meterRegistry, singleThread);
+            CountDownLatch started = new CountDownLatch(1);
+
+            // interrupt를 예외로 바꾸지 않고 상태만 남긴 채 끝나는 호출
+            CompletableFuture<String> first = registry.submit(KEY, () -> {
+                started.countDown();
+                while (!Thread.currentThread().isInterrupted()) {
+                    Thread.onSpinWait();
+                }
+                return "first";
+            });
+            assertThat(started.await(TIMEOUT_SECONDS, TimeUnit.SECONDS)).isTrue();
+            registry.submit(KEY, () -> "second");
+
+            CompletableFuture<Boolean> nextSeesInterrupt = registry.submit(
+                    AIRequestRegistry.RequestKey.of(2L, null, "emotion-guard"),
+                    () -> Thread.currentThread().isInterrupted());
+
+            assertThatThrownBy(first::join).isInstanceOf(CancellationException.class);
+            assertThat(nextSeesInterrupt.get(TIMEOUT_SECONDS, TimeUnit.SECONDS)).isFalse();
+        } finally {
+            singleThread.shutdownNow();
+        }
+    }
+
+    @Test
+    void completionOfCancelledRequestDoesNotRemoveNewerEntry() throws Exception {
+        AIRequestRegistry registry = new AIRequestRegistry(meterRegistry, executor);
+        CountDownLatch firstStarted = new CountDownLatch(1);
+        CountDownLatch secondStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<String> first = registry.submit(KEY, () -> {
+            firstStarted.countDown();
+            return awaitRelease(release, "first");
+        });
+        assertThat(firstStarted.await(TIMEOUT_SECONDS, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture<String> second = registry.submit(KEY, () -> {
+            secondStarted.countDown();
+            return awaitRelease(release, "second");
+        });
+        assertThatThrownBy(first::join).isInstanceOf(CancellationException.class);
+        assertThat(secondStarted.await(TIMEOUT_SECONDS, TimeUnit.SECONDS)).isTrue();
+
+        // 첫 요청이 끝나며 entry를 지웠다면 세 번째 요청이 두 번째 요청을 취소하지 못함
+        CompletableFuture<String> third = registry.submit(KEY, () -> "third");
+
+        assertThatThrownBy(second::join).isInstanceOf(CancellationException.class);
+        assertThat(third.get(TIMEOUT_SECONDS, TimeUnit.SECONDS)).isEqualTo("third");
+        assertThat(cancelled("running")).isEqualTo(2.0);
+        release.countDown();
+    }
+
+    @Test
+    void roomLessRequestsDoNotShareKeyWithRoomRequests() {
+        assertThat(AIRequestRegistry.RequestKey.of(1L, null, "transform"))
+                .isNotEqualTo(AIRequestRegistry.RequestKey.of(1L, 3L, "transform"));
+        assertThat(AIRequestRegistry.RequestKey.of(1L, null, "transform").scope())
+                .isEqualTo(AIRequestRegistry.NO_ROOM_SCOPE);
+    }
+
+    private String awaitRelease(CountDownLatch release, String result) {
+        try {
+            release.await();
+            return result;
+        } catch (InterruptedException e) {
+            throw new IllegalStateException("interrupted", e);
+        }
+    }
+
+    private double cancelled(String stage) {
+        Counter counter = meterRegistry.find("ai.requests.cancelled")
+                .tag("endpoint", KEY.endpoint())
+                .tag("stage", stage)
+                .counter();
+        return counter != null ? counter.count() : 0.0;
+    }
+
+    private void awaitTrue(AtomicBoolean flag) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+        while (!flag.get() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(flag).isTrue();
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.demo.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 기록해 둔 모델 출력(ai-responses/corpus.json)을 AIService와 같은 방식으로 파싱하여 결과를 확인
+ *
+ * 각 케이스의 expected는 파싱 결과 전체이며, null이면 파싱에 실패(null 반환)해야 함.
+ * expected는 알 수 없는 필드를 허용하지 않는 ObjectMapper로 읽으므로 record에 없는 필드를 적으면 테스트가 실패함
+ */
+class AIResponseParserTest {
+
+    private static final String CORPUS = "/ai-responses/corpus.json";
+    private static final Map<String, Class<?>> TYPES = Map.of(
+            "emotion-guard", AIService.EmotionGuardResult.class,
+            "guard-and-transform", AIService.GuardedTransformResult.class,
+            "reaction-suggest", AIService.ReactionResult.class,
+            "friend-matching", AIService.MatchResult.class
+    );
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private final AIResponseParser parser = new AIResponseParser(objectMapper);
+
+    record CorpusCase(String name, String type, String response, JsonNode expected) {
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    static List<CorpusCase> corpus() throws IOException {
+        try (InputStream in = AIResponseParserTest.class.getResourceAsStream(CORPUS)) {
+            return objectMapper.readValue(in, new TypeReference<>() {
+            });
+        }
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("corpus")
+    void parsesRecordedModelOutput(CorpusCase corpusCase) throws IOException {
+        Class<?> type = TYPES.get(corpusCase.type());
+        assertThat(type).as("unknown corpus type %s", corpusCase.type()).isNotNull();
+
+        Object parsed = parser.parse(corpusCase.response(), type);
+
+        if (corpusCase.expected() == null || corpusCase.expected().isNull()) {
+            assertThat(parsed).isNull();
+            return;
+        }
+        Object expected = objectMapper.treeToValue(corpusCase.expected(), type);
+        assertThat(parsed).usingRecursiveComparison().isEqualTo(expected);
+    }
+}